@@ -1,6 +1,38 @@
 package com.ignacio.twitter.auth;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public record AuthenticatedUser(Long userId, List<String> actions) {
+/**
+ * The caller behind a verified token. Known actions are held as a {@link Permission} bitmask;
+ * {@code extraActions} keeps any action that has no bit assigned.
+ */
+public record AuthenticatedUser(Long userId, long permissions, List<String> extraActions) {
+
+    public AuthenticatedUser {
+        extraActions = List.copyOf(extraActions);
+    }
+
+    public AuthenticatedUser(Long userId, List<String> actions) {
+        this(userId, Permission.maskOf(actions), Permission.unmapped(actions));
+    }
+
+    public boolean has(Permission permission) {
+        return hasAny(permission.mask());
+    }
+
+    public boolean hasAny(long mask) {
+        return (permissions & mask) != 0;
+    }
+
+    public boolean hasAction(String action) {
+        Permission permission = Permission.fromAction(action);
+        return permission != null ? has(permission) : extraActions.contains(action);
+    }
+
+    public List<String> actions() {
+        List<String> actions = new ArrayList<>(Permission.actionsOf(permissions));
+        actions.addAll(extraActions);
+        return actions;
+    }
 }
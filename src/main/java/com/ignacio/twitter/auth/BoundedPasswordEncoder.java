@@ -0,0 +1,140 @@
+package com.ignacio.twitter.auth;
+
+import com.ignacio.twitter.configurations.PasswordHashingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the delegate's {@code encode} and {@code matches} on a fixed pool sized to the CPU count
+ * with a bounded queue. Request threads still wait for the result, but at most
+ * {@code threads + queueCapacity} of them can be tied up by hashing at once; anything beyond
+ * that, or anything still queued after {@code queueTimeout}, fails fast with
+ * {@link PasswordHashingUnavailableException} so cheap requests keep their threads. A hash that
+ * has already started is never abandoned: the CPU is spent either way, so the caller waits for it.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration queueTimeout;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queueTimeout = properties.queueTimeout();
+        this.retryAfter = properties.retryAfter();
+        int threads = properties.resolvedThreads();
+        BlockingQueue<Runnable> queue = properties.queueCapacity() == 0
+                ? new SynchronousQueue<>()
+                : new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("password.hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.waitTimer = meterRegistry.timer("password.hash.wait");
+        this.rejected = meterRegistry.counter("password.hash.rejected");
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        // Whoever flips this first wins: the worker starting the hash, or the caller giving up on it.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException(retryAfter);
+        }
+        try {
+            try {
+                return future.get(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (claimed.compareAndSet(false, true)) {
+                    abandon(future);
+                    rejected.increment();
+                    throw new PasswordHashingUnavailableException(retryAfter);
+                }
+                return future.get();
+            }
+        } catch (InterruptedException ex) {
+            if (claimed.compareAndSet(false, true)) {
+                abandon(future);
+            }
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException(retryAfter);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    /** Frees the queue slot of a task that never started; it would be skipped anyway. */
+    private void abandon(Future<?> future) {
+        future.cancel(false);
+        if (future instanceof Runnable task) {
+            executor.remove(task);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ignacio.twitter.auth;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * BCrypt at a cost chosen for the machine it runs on. Every hash records its own cost, so hashes
+ * made at another cost keep verifying; {@link #upgradeEncoding(String)} reports those made at a
+ * lower cost so callers can rehash once the plain-text password is at hand. Hashes at a higher
+ * cost are left alone: instances calibrate independently, and a slower one must neither weaken
+ * them nor make a hash flip back and forth between costs.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int strength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = strengthOf(encodedPassword);
+        return stored > 0 && stored < strength;
+    }
+
+    /**
+     * Highest cost within {@code [minStrength, maxStrength]} whose hash is expected to finish
+     * within {@code target}, or {@code minStrength} when even that is slower.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        return calibrate(target, minStrength, maxStrength, CalibratedBCryptPasswordEncoder::timeHash);
+    }
+
+    static int calibrate(Duration target, int minStrength, int maxStrength, IntToLongFunction nanosAtStrength) {
+        nanosAtStrength.applyAsLong(PROBE_STRENGTH);
+        long probeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            probeNanos = Math.min(probeNanos, nanosAtStrength.applyAsLong(PROBE_STRENGTH));
+        }
+        long budgetNanos = target.toNanos();
+        int chosen = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            if (estimate(probeNanos, candidate) > budgetNanos) {
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+
+    static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char ones = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private static long estimate(long probeNanos, int strength) {
+        int doublings = strength - PROBE_STRENGTH;
+        if (doublings <= 0) {
+            return probeNanos >> -doublings;
+        }
+        return doublings >= Long.numberOfLeadingZeros(probeNanos) ? Long.MAX_VALUE : probeNanos << doublings;
+    }
+
+    private static long timeHash(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode("calibration-password");
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ignacio.twitter.auth;
+
+public final class JwtClaims {
+
+    public static final String USER_ID = "userId";
+    /** Bitmask of {@link Permission}s granted to the token. */
+    public static final String PERMISSIONS = "perm";
+    /** Actions by name; the only permission claim in tokens issued before {@link #PERMISSIONS}. */
+    public static final String ACTIONS = "actions";
+
+    private JwtClaims() {
+    }
+}
@@ -0,0 +1,32 @@
+package com.ignacio.twitter.auth;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Raised when the password hashing pool is saturated. Resolves to a 503 carrying
+ * {@code Retry-After} so clients back off instead of retrying immediately.
+ */
+public class PasswordHashingUnavailableException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent sign-ins, try again shortly");
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ignacio.twitter.auth;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bit positions for the rows of {@code permitted_actions}, used to carry permissions in tokens as
+ * a single {@code long}. Positions are part of the token format: append new actions with the next
+ * free bit and never renumber or reuse one. Actions without a bit travel by name.
+ */
+public enum Permission {
+    TWEET_READ("tweet:read", 0),
+    TWEET_WRITE("tweet:write", 1),
+    TWEET_EXPORT("tweet:export", 2),
+    USER_READ("user:read", 3),
+    USER_WRITE("user:write", 4),
+    EVENTS_READ("events:read", 5),
+    EVENTS_REPLAY("events:replay", 6);
+
+    private static final Permission[] BY_BIT = new Permission[Long.SIZE];
+    private static final Map<String, Permission> BY_ACTION = new HashMap<>();
+
+    static {
+        for (Permission permission : values()) {
+            if (BY_BIT[permission.bit] != null) {
+                throw new IllegalStateException("Duplicate permission bit " + permission.bit);
+            }
+            BY_BIT[permission.bit] = permission;
+            BY_ACTION.put(permission.action, permission);
+        }
+    }
+
+    private final String action;
+    private final int bit;
+
+    Permission(String action, int bit) {
+        this.action = action;
+        this.bit = bit;
+    }
+
+    public String action() {
+        return action;
+    }
+
+    public long mask() {
+        return 1L << bit;
+    }
+
+    public static Permission fromAction(String action) {
+        return BY_ACTION.get(action);
+    }
+
+    public static long maskOf(Collection<String> actions) {
+        long mask = 0;
+        for (String action : actions) {
+            Permission permission = BY_ACTION.get(action);
+            if (permission != null) {
+                mask |= permission.mask();
+            }
+        }
+        return mask;
+    }
+
+    /** Actions that have no bit and therefore have to be carried by name. */
+    public static List<String> unmapped(Collection<String> actions) {
+        List<String> unmapped = new ArrayList<>();
+        for (String action : actions) {
+            if (!BY_ACTION.containsKey(action)) {
+                unmapped.add(action);
+            }
+        }
+        return unmapped;
+    }
+
+    public static List<String> actionsOf(long mask) {
+        List<String> actions = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            Permission permission = BY_BIT[Long.numberOfTrailingZeros(remaining)];
+            if (permission != null) {
+                actions.add(permission.action);
+            }
+        }
+        return actions;
+    }
+}
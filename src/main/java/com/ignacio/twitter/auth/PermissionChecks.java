@@ -0,0 +1,40 @@
+package com.ignacio.twitter.auth;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Backs {@code @PreAuthorize("@perm.has(authentication, 'TWEET_READ')")}. Callers authenticated by
+ * a token are checked against the {@link AuthenticatedUser} bitmask with a single AND; any other
+ * principal falls back to its granted authorities.
+ */
+public class PermissionChecks {
+
+    public boolean has(Authentication authentication, String permission) {
+        return allows(authentication, Permission.valueOf(permission).mask());
+    }
+
+    public boolean any(Authentication authentication, String... permissions) {
+        long mask = 0;
+        for (String permission : permissions) {
+            mask |= Permission.valueOf(permission).mask();
+        }
+        return allows(authentication, mask);
+    }
+
+    private boolean allows(Authentication authentication, long mask) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.hasAny(mask);
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Permission permission = Permission.fromAction(authority.getAuthority());
+            if (permission != null && (permission.mask() & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
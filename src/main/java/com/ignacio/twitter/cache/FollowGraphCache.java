@@ -0,0 +1,57 @@
+package com.ignacio.twitter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ignacio.twitter.configurations.FollowCacheProperties;
+import com.ignacio.twitter.events.FollowChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+@Component
+public class FollowGraphCache {
+
+    // Adjacency lists are sorted long[] snapshots weighed by edge count. Each direction gets
+    // half of the edge budget since every follow is stored once per side.
+    private final Cache<Long, long[]> followers;
+    private final Cache<Long, long[]> following;
+
+    public FollowGraphCache(FollowCacheProperties properties, MeterRegistry meterRegistry) {
+        this.followers = build(properties);
+        this.following = build(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, followers, "follows.followers");
+        CaffeineCacheMetrics.monitor(meterRegistry, following, "follows.following");
+    }
+
+    public long[] followers(Long userId, Function<Long, long[]> loader) {
+        return followers.get(userId, loader);
+    }
+
+    public long[] following(Long userId, Function<Long, long[]> loader) {
+        return following.get(userId, loader);
+    }
+
+    public boolean isFollowing(Long followerId, Long followeeId, Function<Long, long[]> followingLoader) {
+        return Arrays.binarySearch(following(followerId, followingLoader), followeeId) >= 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        following.invalidate(event.followerId());
+        followers.invalidate(event.followeeId());
+    }
+
+    private static Cache<Long, long[]> build(FollowCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, properties.maximumEdges() / 2))
+                .weigher((Long userId, long[] ids) -> Math.max(1, ids.length))
+                .expireAfterAccess(properties.expireAfterAccess())
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ignacio.twitter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.events.FollowChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+@Component
+public class HomeTimelineStore {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final Cache<Long, Timeline> timelines;
+    private final int capacity;
+
+    public HomeTimelineStore(TimelineProperties properties, MeterRegistry meterRegistry) {
+        this.capacity = properties.capacity();
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(properties.maximumTimelines())
+                .expireAfterAccess(properties.expireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "timelines.home");
+    }
+
+    public long[] read(Long userId, Function<Long, long[]> loader, Long beforeId, int limit) {
+        return timelines.get(userId, id -> new Timeline(capacity, loader.apply(id))).page(beforeId, limit);
+    }
+
+    // computeIfPresent waits for an in-flight materialization of the same user, so a tweet
+    // committed while the timeline is being loaded is never dropped.
+    public boolean push(Long userId, long tweetId) {
+        return timelines.asMap().computeIfPresent(userId, (id, timeline) -> timeline.add(tweetId)) != null;
+    }
+
+    public void evict(Long userId) {
+        timelines.invalidate(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        evict(event.followerId());
+    }
+
+    static final class Timeline {
+
+        private final int capacity;
+        private long[] ids;
+        private int size;
+
+        Timeline(int capacity, long[] newestFirst) {
+            this.capacity = capacity;
+            this.size = Math.min(newestFirst.length, capacity);
+            this.ids = Arrays.copyOf(newestFirst, Math.min(capacity, Math.max(size, INITIAL_CAPACITY)));
+        }
+
+        synchronized Timeline add(long tweetId) {
+            int index = firstIndexNotAbove(tweetId);
+            if ((index < size && ids[index] == tweetId) || index >= capacity) {
+                return this;
+            }
+            if (size == ids.length && ids.length < capacity) {
+                ids = Arrays.copyOf(ids, Math.min(capacity, ids.length * 2));
+            }
+            int retained = Math.min(size, ids.length - 1);
+            System.arraycopy(ids, index, ids, index + 1, retained - index);
+            ids[index] = tweetId;
+            size = retained + 1;
+            return this;
+        }
+
+        synchronized long[] page(Long beforeId, int limit) {
+            int start = beforeId == null ? 0 : firstIndexNotAbove(beforeId - 1);
+            return Arrays.copyOfRange(ids, start, Math.min(size, start + limit));
+        }
+
+        private int firstIndexNotAbove(long tweetId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] > tweetId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ignacio.twitter.cache;
+
+import com.ignacio.twitter.configurations.PermissionCacheProperties;
+import com.ignacio.twitter.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Resolves a user's permitted actions from an in-memory role -> actions map, so a login only
+ * needs the user's role ids. The map is reloaded when {@code authorization_revision} moves
+ * (checked every {@code permissions.cache.refresh-interval}) or when a user holds a role the map
+ * has not seen yet. With {@code permissions.cache.enabled=false} every call goes to the database.
+ */
+@Component
+public class PermissionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionCache.class);
+
+    private final AuthorizationRepository authorizationRepository;
+    private final boolean enabled;
+    private final Counter reloads;
+    private volatile Snapshot snapshot;
+
+    public PermissionCache(AuthorizationRepository authorizationRepository,
+                           PermissionCacheProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.authorizationRepository = authorizationRepository;
+        this.enabled = properties.enabled();
+        this.reloads = Counter.builder("permissions.cache.reloads")
+                .description("Reloads of the role to permitted actions map")
+                .register(meterRegistry);
+    }
+
+    public List<String> actionsForUser(Long userId) {
+        if (!enabled) {
+            return authorizationRepository.findPermittedActionsByUserId(userId);
+        }
+        List<Long> roleIds = authorizationRepository.findRoleIdsByUserId(userId);
+        Snapshot current = snapshot;
+        if (current == null || !current.actionsByRole().keySet().containsAll(roleIds)) {
+            current = reload();
+        }
+        TreeSet<String> actions = new TreeSet<>();
+        for (Long roleId : roleIds) {
+            actions.addAll(current.actionsByRole().getOrDefault(roleId, List.of()));
+        }
+        return List.copyOf(actions);
+    }
+
+    @Scheduled(fixedDelayString = "${permissions.cache.refresh-interval:5s}")
+    public void refreshIfChanged() {
+        Snapshot current = snapshot;
+        if (!enabled || current == null) {
+            return;
+        }
+        long revision = authorizationRepository.findRevision();
+        if (revision != current.revision()) {
+            logger.info("Authorization mappings changed (revision {} -> {}); reloading", current.revision(), revision);
+            reload();
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        // Read the revision before the mappings so a change racing with the load is picked up by
+        // the next refresh rather than hidden behind a newer revision number.
+        long revision = authorizationRepository.findRevision();
+        Snapshot loaded = new Snapshot(revision, Map.copyOf(authorizationRepository.findActionsByRoleId()));
+        snapshot = loaded;
+        reloads.increment();
+        return loaded;
+    }
+
+    private record Snapshot(long revision, Map<Long, List<String>> actionsByRole) {
+    }
+}
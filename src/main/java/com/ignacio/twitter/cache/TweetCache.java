@@ -0,0 +1,88 @@
+package com.ignacio.twitter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ignacio.twitter.configurations.TweetCacheProperties;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.events.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class TweetCache {
+
+    private final Cache<Long, TweetView> tweets;
+    private final Cache<Long, Boolean> missing;
+
+    public TweetCache(TweetCacheProperties properties, MeterRegistry meterRegistry) {
+        this.tweets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.negativeTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tweets, "tweets");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "tweets.missing");
+    }
+
+    public Optional<TweetView> get(Long id, Function<Long, Optional<TweetView>> loader) {
+        if (missing.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        // Loading inside Cache.get holds the per-key lock, and a miss is recorded before that lock
+        // is released. An invalidation issued after a concurrent commit therefore waits for the
+        // load and then removes whatever it produced, negative entry included.
+        TweetView view = tweets.get(id, key -> {
+            TweetView loaded = loader.apply(key).orElse(null);
+            if (loaded == null) {
+                missing.put(key, Boolean.TRUE);
+            }
+            return loaded;
+        });
+        return Optional.ofNullable(view);
+    }
+
+    public Map<Long, TweetView> getAllPresent(Collection<Long> ids) {
+        return tweets.getAllPresent(ids);
+    }
+
+    public boolean isKnownMissing(Long id) {
+        return missing.getIfPresent(id) != null;
+    }
+
+    public void invalidate(Long id) {
+        tweets.invalidate(id);
+        missing.invalidate(id);
+    }
+
+    /**
+     * Views embed the author's handle and version, so an author update drops every cached view of
+     * theirs. This scans the cache, which is fine for how rarely users change.
+     */
+    public void invalidateAuthor(Long authorId) {
+        tweets.asMap().values().removeIf(view -> view.author() != null && authorId.equals(view.author().id()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTweetChanged(TweetChangedEvent event) {
+        invalidate(event.tweetId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidateAuthor(event.userId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "archive")
+public record ArchiveProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("30d") @NotNull Duration retention,
+        @DefaultValue("1000") @Min(1) int batchSize,
+        @DefaultValue("200ms") @NotNull Duration batchPause,
+        @DefaultValue("500") @Min(1) int maxBatchesPerRun
+) {
+}
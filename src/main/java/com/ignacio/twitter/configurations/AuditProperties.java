@@ -0,0 +1,34 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "audit")
+public record AuditProperties(
+        @DefaultValue("outbox") @NotNull Mode mode,
+        @DefaultValue("10000") @Min(1) int queueCapacity,
+        @DefaultValue("500") @Min(1) int batchSize,
+        @DefaultValue("200ms") @NotNull Duration flushInterval,
+        @DefaultValue("write-through") @NotNull Overflow overflow,
+        @DefaultValue("3") @Min(1) int writeAttempts,
+        @DefaultValue("100ms") @NotNull Duration retryBackoff
+) {
+
+    public enum Mode {
+        /** Events are inserted in the business transaction and commit or roll back with it. */
+        OUTBOX,
+        /** Events are queued after commit and written in batches by a background writer. */
+        ASYNC
+    }
+
+    public enum Overflow {
+        DROP,
+        WRITE_THROUGH
+    }
+}
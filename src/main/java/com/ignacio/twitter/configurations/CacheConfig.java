@@ -0,0 +1,9 @@
+package com.ignacio.twitter.configurations;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({TweetCacheProperties.class, FollowCacheProperties.class})
+public class CacheConfig {
+}
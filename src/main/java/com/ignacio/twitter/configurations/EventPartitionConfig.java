@@ -0,0 +1,11 @@
+package com.ignacio.twitter.configurations;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(EventPartitionProperties.class)
+public class EventPartitionConfig {
+}
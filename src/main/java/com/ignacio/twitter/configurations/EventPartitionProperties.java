@@ -0,0 +1,24 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "events.partitions")
+public record EventPartitionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") @Min(1) int premadeMonths,
+        @DefaultValue("12") @Min(1) int retentionMonths,
+        @DefaultValue("drop") @NotNull RetentionAction retentionAction
+) {
+
+    public enum RetentionAction {
+        /** Detach and drop expired partitions. */
+        DROP,
+        /** Only detach expired partitions, leaving the tables behind for archiving. */
+        DETACH
+    }
+}
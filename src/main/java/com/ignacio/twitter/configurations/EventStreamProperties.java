@@ -0,0 +1,30 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "events.stream")
+public record EventStreamProperties(
+        @DefaultValue("local") @NotNull Relay relay,
+        @DefaultValue("twitter_events") @Pattern(regexp = "[a-z_][a-z0-9_]*") String channel,
+        @DefaultValue("256") @Min(1) int bufferSize,
+        @DefaultValue("1000") @Min(1) int maxSubscribers,
+        @DefaultValue("1000") @Min(0) int backfillLimit,
+        @DefaultValue("5s") @NotNull Duration resumeOverlap,
+        @DefaultValue("30m") @NotNull Duration timeout
+) {
+
+    public enum Relay {
+        /** Events only reach subscribers connected to the node that committed them. */
+        LOCAL,
+        /** Events are sent through Postgres NOTIFY so subscribers on every node receive them. */
+        POSTGRES
+    }
+}
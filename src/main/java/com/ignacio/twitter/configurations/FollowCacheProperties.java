@@ -0,0 +1,17 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "cache.follows")
+public record FollowCacheProperties(
+        @DefaultValue("25000000") @Min(1) long maximumEdges,
+        @DefaultValue("30m") @NotNull Duration expireAfterAccess
+) {
+}
@@ -0,0 +1,33 @@
+package com.ignacio.twitter.configurations;
+
+import com.ignacio.twitter.ids.NodeIdLease;
+import com.ignacio.twitter.ids.SortableIdGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdConfig {
+
+    /** Resolved before the entity manager factory, after Flyway has created {@code id_node_leases}. */
+    @Bean
+    public NodeIdLease nodeIdLease(IdProperties properties, DataSource dataSource,
+                                   ObjectProvider<FlywayMigrationInitializer> flywayMigration) {
+        flywayMigration.ifAvailable(migration -> { });
+        NodeIdLease lease = new NodeIdLease(dataSource, properties);
+        lease.acquire();
+        return lease;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer nodeIdHibernateProperties(NodeIdLease nodeIdLease) {
+        return hibernateProperties -> hibernateProperties.put(SortableIdGenerator.NODE_ID_SETTING,
+                nodeIdLease.nodeId());
+    }
+}
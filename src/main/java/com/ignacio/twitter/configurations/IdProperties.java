@@ -0,0 +1,24 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * {@code nodeId} pins this instance's snowflake node id; leave it unset to lease one from
+ * {@code id_node_leases} instead. Startup fails when neither is configured.
+ */
+@Validated
+@ConfigurationProperties(prefix = "twitter.ids")
+public record IdProperties(
+        @Min(0) @Max(31) Integer nodeId,
+        @DefaultValue("true") boolean lease,
+        @DefaultValue("5m") @NotNull Duration leaseTtl,
+        @DefaultValue("1m") @NotNull Duration leaseRenewInterval
+) {
+}
@@ -0,0 +1,44 @@
+package com.ignacio.twitter.configurations;
+
+import com.ignacio.twitter.middleware.IdempotencyFilter;
+import com.ignacio.twitter.middleware.IdempotencyStore;
+import com.ignacio.twitter.middleware.InMemoryIdempotencyStore;
+import com.ignacio.twitter.middleware.JdbcIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties,
+                                             MeterRegistry meterRegistry,
+                                             DataSource dataSource) {
+        InMemoryIdempotencyStore memory = new InMemoryIdempotencyStore(properties, meterRegistry);
+        if (properties.store() == IdempotencyProperties.Store.JDBC) {
+            return new JdbcIdempotencyStore(memory, new JdbcTemplate(dataSource), properties);
+        }
+        return memory;
+    }
+
+    /**
+     * Runs just after the security filter chain so replays are scoped to the authenticated caller.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyStore idempotencyStore,
+                                                                                   IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new IdempotencyFilter(idempotencyStore, properties.waitTimeout()));
+        registration.addUrlPatterns("/tweets", "/users");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
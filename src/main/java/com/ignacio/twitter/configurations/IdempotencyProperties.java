@@ -0,0 +1,26 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("memory") @NotNull Store store,
+        @DefaultValue("24h") @NotNull Duration ttl,
+        @DefaultValue("100000") @Min(1) long maximumEntries,
+        @DefaultValue("30s") @NotNull Duration waitTimeout
+) {
+
+    public enum Store {
+        /** Keys live only in this node's bounded cache. */
+        MEMORY,
+        /** Keys are also written to the idempotency_keys table so other nodes and restarts see them. */
+        JDBC
+    }
+}
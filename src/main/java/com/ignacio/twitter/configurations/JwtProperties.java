@@ -4,12 +4,15 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 @ConfigurationProperties(prefix = "jwt")
 public record JwtProperties(
         @NotBlank @Size(min = 32) String secret,
-        @Min(60) long ttlSeconds
+        @Min(60) long ttlSeconds,
+        @DefaultValue("10000") @Min(0) long tokenCacheSize,
+        @DefaultValue("true") boolean legacyActionsClaim
 ) {
 }
@@ -1,15 +1,37 @@
 package com.ignacio.twitter.configurations;
 
+import com.ignacio.twitter.auth.BoundedPasswordEncoder;
+import com.ignacio.twitter.auth.CalibratedBCryptPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class PasswordConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordConfig.class);
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        int strength = properties.strength();
+        if (strength == 0) {
+            strength = CalibratedBCryptPasswordEncoder.calibrate(properties.targetHashTime(),
+                    properties.minStrength(), Math.max(properties.minStrength(), properties.maxStrength()));
+            logger.info("Calibrated BCrypt strength {} for a target hash time of {}",
+                    strength, properties.targetHashTime());
+        }
+        int calibrated = strength;
+        Gauge.builder("password.hash.strength", () -> calibrated).register(meterRegistry);
+        return new BoundedPasswordEncoder(new CalibratedBCryptPasswordEncoder(strength), properties, meterRegistry);
     }
 }
@@ -0,0 +1,35 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Sizing for the pool that runs BCrypt. {@code threads} of 0 means one per available processor;
+ * {@code queueTimeout} bounds how long a hash may sit in the queue before the caller gives up with
+ * a 503; once a hash has started it always runs to completion.
+ * A {@code strength} of 0 picks the BCrypt cost at startup so one hash takes about
+ * {@code targetHashTime}, kept within {@code [minStrength, maxStrength]}.
+ */
+@Validated
+@ConfigurationProperties(prefix = "password.hashing")
+public record PasswordHashingProperties(
+        @DefaultValue("0") @Min(0) int threads,
+        @DefaultValue("64") @Min(0) int queueCapacity,
+        @DefaultValue("2s") @NotNull Duration queueTimeout,
+        @DefaultValue("1s") @NotNull Duration retryAfter,
+        @DefaultValue("0") @Min(0) @Max(31) int strength,
+        @DefaultValue("250ms") @NotNull Duration targetHashTime,
+        @DefaultValue("10") @Min(4) @Max(31) int minStrength,
+        @DefaultValue("14") @Min(4) @Max(31) int maxStrength
+) {
+
+    public int resolvedThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
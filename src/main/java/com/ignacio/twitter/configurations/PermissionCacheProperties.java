@@ -0,0 +1,12 @@
+package com.ignacio.twitter.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "permissions.cache")
+public record PermissionCacheProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
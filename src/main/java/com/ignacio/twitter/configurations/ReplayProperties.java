@@ -0,0 +1,15 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "replay")
+public record ReplayProperties(
+        @DefaultValue("4") @Min(1) int parallelism,
+        @DefaultValue("10000") @Min(1) int queueCapacity,
+        @DefaultValue("100000") @Min(1) int checkpointInterval
+) {
+}
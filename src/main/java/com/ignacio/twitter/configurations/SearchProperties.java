@@ -0,0 +1,14 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "search.index")
+public record SearchProperties(
+        @DefaultValue("true") boolean buildOnStartup,
+        @DefaultValue("8") @Min(1) int maxQueryTerms
+) {
+}
@@ -1,6 +1,10 @@
 package com.ignacio.twitter.configurations;
 
+import com.ignacio.twitter.auth.PermissionChecks;
 import com.ignacio.twitter.middleware.JwtAuthFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,8 +21,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     @Bean
-    public JwtAuthFilter jwtAuthFilter(JwtProperties jwtProperties) {
-        return new JwtAuthFilter(jwtProperties.secret());
+    public JwtAuthFilter jwtAuthFilter(JwtProperties jwtProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new JwtAuthFilter(jwtProperties.secret(), jwtProperties.tokenCacheSize(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean(name = "perm")
+    public PermissionChecks permissionChecks() {
+        return new PermissionChecks();
     }
 
     @Bean
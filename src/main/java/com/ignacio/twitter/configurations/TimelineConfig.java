@@ -0,0 +1,38 @@
+package com.ignacio.twitter.configurations;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableConfigurationProperties(TimelineProperties.class)
+public class TimelineConfig {
+
+    public static final String FANOUT_EXECUTOR = "timelineFanoutExecutor";
+
+    // Boot backs off its own executor once any Executor bean exists, so keep the shared one
+    // (MVC async requests, unqualified @Async) registered alongside the fan-out pool.
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = FANOUT_EXECUTOR)
+    public ThreadPoolTaskExecutor timelineFanoutExecutor(TimelineProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("timeline-fanout-");
+        executor.setCorePoolSize(properties.fanoutThreads());
+        executor.setMaxPoolSize(properties.fanoutThreads());
+        executor.setQueueCapacity(properties.fanoutQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "timeline")
+public record TimelineProperties(
+        @DefaultValue("10000") @Min(0) long fanoutFollowerThreshold,
+        @DefaultValue("800") @Min(1) int capacity,
+        @DefaultValue("10000") @Min(1) long maximumTimelines,
+        @DefaultValue("1h") @NotNull Duration expireAfterAccess,
+        @DefaultValue("4") @Min(1) int fanoutThreads,
+        @DefaultValue("10000") @Min(0) int fanoutQueueCapacity
+) {
+}
@@ -0,0 +1,18 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "cache.tweets")
+public record TweetCacheProperties(
+        @DefaultValue("10000") @Min(1) long maximumSize,
+        @DefaultValue("60s") @NotNull Duration ttl,
+        @DefaultValue("5s") @NotNull Duration negativeTtl
+) {
+}
@@ -0,0 +1,23 @@
+package com.ignacio.twitter.configurations;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties(UserDeletionProperties.class)
+public class UserDeletionConfig {
+
+    public static final String CASCADE_EXECUTOR = "userTweetCascadeExecutor";
+
+    @Bean(name = CASCADE_EXECUTOR)
+    public ThreadPoolTaskExecutor userTweetCascadeExecutor(UserDeletionProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("user-tweet-cascade-");
+        executor.setCorePoolSize(properties.threads());
+        executor.setMaxPoolSize(properties.threads());
+        executor.setQueueCapacity(properties.queueCapacity());
+        return executor;
+    }
+}
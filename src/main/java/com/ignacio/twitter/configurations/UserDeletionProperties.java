@@ -0,0 +1,20 @@
+package com.ignacio.twitter.configurations;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "users.deletion")
+public record UserDeletionProperties(
+        @DefaultValue("1000") @Min(1) int chunkSize,
+        @DefaultValue("2") @Min(1) int threads,
+        @DefaultValue("100") @Min(0) int queueCapacity,
+        @DefaultValue("100") @Min(1) int sweepBatchSize,
+        @DefaultValue("1h") @NotNull Duration statusRetention
+) {
+}
@@ -0,0 +1,46 @@
+package com.ignacio.twitter.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Tag for a representation that also embeds fields of another row, so a change to either row
+     * changes the tag.
+     */
+    static String of(Long id, long version, long embeddedVersion) {
+        return "\"" + id + "." + version + "." + embeddedVersion + "\"";
+    }
+
+    /**
+     * Extracts the version from an {@code If-Match} header produced by either {@code of} overload;
+     * only the resource's own version is a precondition for writing it. Returns null when the
+     * header is absent or {@code *}; anything that cannot match this resource's current tag fails
+     * the precondition.
+     */
+    static Long versionFromIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            String versions = tag.substring(prefix.length(), tag.length() - 1);
+            int embedded = versions.indexOf('.');
+            try {
+                return Long.parseLong(embedded < 0 ? versions : versions.substring(0, embedded));
+            } catch (NumberFormatException ignored) {
+                // fall through to the failed precondition below
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current representation");
+    }
+}
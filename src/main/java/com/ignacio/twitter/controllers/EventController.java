@@ -0,0 +1,37 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.services.EventStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final EventStreamService eventStreamService;
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("@perm.has(authentication, 'EVENTS_READ')")
+    @Operation(summary = "Stream audit events as server-sent events",
+            description = """
+                    Delivery is at-least-once. Each message's SSE id is the event id. When a client \
+                    reconnects with Last-Event-ID, the backlog is read from `events.stream.resume-overlap` \
+                    (5s by default) before that event. This catches events that committed late with a \
+                    lower id, but it also re-sends events the client has already received. Browsers' \
+                    EventSource does not dedupe, so clients must ignore ids they have already processed.\
+                    """)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Id of the last event received; the stream resumes from shortly before it")
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventStreamService.subscribe(lastEventId);
+    }
+}
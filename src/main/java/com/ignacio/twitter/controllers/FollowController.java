@@ -0,0 +1,66 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.services.FollowService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class FollowController {
+
+    private final FollowService followService;
+
+    @PostMapping("/{id}/follow")
+    @PreAuthorize("@perm.has(authentication, 'USER_WRITE')")
+    public ResponseEntity<Void> follow(@PathVariable Long id) {
+        followService.follow(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/follow")
+    @PreAuthorize("@perm.has(authentication, 'USER_WRITE')")
+    public ResponseEntity<Void> unfollow(@PathVariable Long id) {
+        followService.unfollow(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/followers")
+    @PreAuthorize("@perm.any(authentication, 'USER_READ', 'USER_WRITE')")
+    public ResponseEntity<List<UserSummary>> listFollowers(@PathVariable Long id,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(
+                followService.listFollowers(id, Pagination.resolveLimit(limit), IdCursor.decode(cursor)));
+    }
+
+    @GetMapping("/{id}/following")
+    @PreAuthorize("@perm.any(authentication, 'USER_READ', 'USER_WRITE')")
+    public ResponseEntity<List<UserSummary>> listFollowing(@PathVariable Long id,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(
+                followService.listFollowing(id, Pagination.resolveLimit(limit), IdCursor.decode(cursor)));
+    }
+
+    @GetMapping("/{id}/following/{targetId}")
+    @PreAuthorize("@perm.any(authentication, 'USER_READ', 'USER_WRITE')")
+    public ResponseEntity<Void> isFollowing(@PathVariable Long id, @PathVariable Long targetId) {
+        if (followService.isFollowing(id, targetId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.dto.CursorPage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+final class Pagination {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private Pagination() {
+    }
+
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder.body(page.items());
+    }
+}
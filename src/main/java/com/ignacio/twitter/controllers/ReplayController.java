@@ -0,0 +1,34 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.dto.ReplayStatus;
+import com.ignacio.twitter.services.ReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/replays")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private final ReplayService replayService;
+
+    @PostMapping("/{projection}")
+    @PreAuthorize("@perm.has(authentication, 'EVENTS_REPLAY')")
+    public ResponseEntity<ReplayStatus> startReplay(@PathVariable String projection,
+                                                    @RequestParam(defaultValue = "false") boolean reset) {
+        return ResponseEntity.accepted().body(replayService.startReplay(projection, reset));
+    }
+
+    @GetMapping("/{projection}")
+    @PreAuthorize("@perm.has(authentication, 'EVENTS_REPLAY')")
+    public ReplayStatus getStatus(@PathVariable String projection) {
+        return replayService.getStatus(projection);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.services.TimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/timeline")
+@RequiredArgsConstructor
+public class TimelineController {
+
+    private final TimelineService timelineService;
+
+    @GetMapping("/home")
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public ResponseEntity<List<TweetView>> homeTimeline(@RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(
+                timelineService.homeTimeline(Pagination.resolveLimit(limit), IdCursor.decode(cursor)));
+    }
+}
@@ -1,10 +1,22 @@
 package com.ignacio.twitter.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetBatchRequest;
+import com.ignacio.twitter.dto.TweetBatchResponse;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetLookupResponse;
 import com.ignacio.twitter.dto.TweetRequest;
-import com.ignacio.twitter.models.Tweet;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.services.TweetSearchService;
 import com.ignacio.twitter.services.TweetService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,9 +25,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -23,36 +44,103 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TweetController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LOOKUP_IDS = 100;
+
     private final TweetService tweetService;
+    private final TweetSearchService tweetSearchService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('tweet:read') or hasAuthority('tweet:write')")
-    public List<Tweet> listTweets() {
-        return tweetService.listTweets();
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public ResponseEntity<List<TweetView>> listTweets(@RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(tweetService.listTweets(Pagination.resolveLimit(limit), TweetCursor.decode(cursor)));
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public TweetLookupResponse lookupTweets(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_LOOKUP_IDS + " ids per lookup");
+        }
+        return tweetService.lookupTweets(ids);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public ResponseEntity<List<TweetView>> searchTweets(@RequestParam String q,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(
+                tweetSearchService.searchTweets(q, Pagination.resolveLimit(limit), IdCursor.decode(cursor)));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("@perm.has(authentication, 'TWEET_EXPORT')")
+    public ResponseEntity<StreamingResponseBody> exportTweets() {
+        ObjectWriter writer = objectMapper.writerFor(TweetExportRow.class);
+        StreamingResponseBody body = outputStream -> writeExport(writer, outputStream);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('tweet:read') or hasAuthority('tweet:write')")
-    public Tweet getTweet(@PathVariable Long id) {
-        return tweetService.getTweet(id);
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public ResponseEntity<TweetView> getTweet(@PathVariable Long id, WebRequest webRequest) {
+        TweetView tweet = tweetService.getTweet(id);
+        if (webRequest.checkNotModified(ETags.of(tweet.id(), tweet.version(), tweet.authorVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(tweet);
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('tweet:write')")
-    public Tweet createTweet(@Valid @RequestBody TweetRequest request) {
+    @PreAuthorize("@perm.has(authentication, 'TWEET_WRITE')")
+    public TweetView createTweet(@Valid @RequestBody TweetRequest request) {
         return tweetService.createTweet(request);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("@perm.has(authentication, 'TWEET_WRITE')")
+    public TweetBatchResponse applyBatch(@Valid @RequestBody TweetBatchRequest request) {
+        return tweetService.applyBatch(request.operations());
+    }
+
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('tweet:write')")
-    public Tweet updateTweet(@PathVariable Long id, @Valid @RequestBody TweetRequest request) {
-        return tweetService.updateTweet(id, request);
+    @PreAuthorize("@perm.has(authentication, 'TWEET_WRITE')")
+    public ResponseEntity<TweetView> updateTweet(@PathVariable Long id,
+                                                 @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @Valid @RequestBody TweetRequest request) {
+        TweetView updated = tweetService.updateTweet(id, request, ETags.versionFromIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.id(), updated.version(), updated.authorVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('tweet:write')")
-    public ResponseEntity<Void> deleteTweet(@PathVariable Long id) {
-        tweetService.deleteTweet(id);
+    @PreAuthorize("@perm.has(authentication, 'TWEET_WRITE')")
+    public ResponseEntity<Void> deleteTweet(@PathVariable Long id,
+                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        tweetService.deleteTweet(id, ETags.versionFromIfMatch(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    private void writeExport(ObjectWriter writer, OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_BYTES);
+        try {
+            tweetService.exportTweets(row -> {
+                try {
+                    out.write(writer.writeValueAsBytes(row));
+                    out.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        out.flush();
+    }
 }
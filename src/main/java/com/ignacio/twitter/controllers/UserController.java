@@ -1,7 +1,11 @@
 package com.ignacio.twitter.controllers;
 
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserDeletionStatus;
 import com.ignacio.twitter.dto.UserRequest;
 import com.ignacio.twitter.models.User;
+import com.ignacio.twitter.services.TweetService;
 import com.ignacio.twitter.services.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +18,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,17 +30,30 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final TweetService tweetService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('user:read') or hasAuthority('user:write')")
+    @PreAuthorize("@perm.any(authentication, 'USER_READ', 'USER_WRITE')")
     public List<User> listUsers() {
         return userService.listUsers();
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:read') or hasAuthority('user:write')")
-    public User getUser(@PathVariable Long id) {
-        return userService.getUser(id);
+    @PreAuthorize("@perm.any(authentication, 'USER_READ', 'USER_WRITE')")
+    public ResponseEntity<User> getUser(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(ETags.of(id, userService.getUserVersion(id)))) {
+            return null;
+        }
+        return ResponseEntity.ok(userService.getUser(id));
+    }
+
+    @GetMapping("/{id}/tweets")
+    @PreAuthorize("@perm.any(authentication, 'TWEET_READ', 'TWEET_WRITE')")
+    public ResponseEntity<List<TweetView>> listUserTweets(@PathVariable Long id,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String cursor) {
+        return Pagination.toResponse(
+                tweetService.listTweetsByAuthor(id, Pagination.resolveLimit(limit), TweetCursor.decode(cursor)));
     }
 
     @PostMapping
@@ -43,15 +62,21 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:write')")
+    @PreAuthorize("@perm.has(authentication, 'USER_WRITE')")
     public User updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest request) {
         return userService.updateUser(id, request);
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:write')")
+    @PreAuthorize("@perm.has(authentication, 'USER_WRITE')")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{id}/deletion")
+    @PreAuthorize("@perm.has(authentication, 'USER_WRITE')")
+    public UserDeletionStatus getDeletionStatus(@PathVariable Long id) {
+        return userService.getDeletionStatus(id);
+    }
 }
@@ -0,0 +1,15 @@
+package com.ignacio.twitter.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
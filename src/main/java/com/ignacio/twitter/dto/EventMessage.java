@@ -0,0 +1,26 @@
+package com.ignacio.twitter.dto;
+
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+
+import java.time.LocalDateTime;
+
+public record EventMessage(
+        Long id,
+        EventType eventType,
+        String entityType,
+        Long entityId,
+        Long actorUserId,
+        LocalDateTime createdAt
+) {
+
+    public static EventMessage from(Event event) {
+        return new EventMessage(
+                event.getId(),
+                event.getEventType(),
+                event.getEntityType(),
+                event.getEntityId(),
+                event.getActorUserId(),
+                event.getCreatedAt());
+    }
+}
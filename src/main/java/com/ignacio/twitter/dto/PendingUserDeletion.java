@@ -0,0 +1,6 @@
+package com.ignacio.twitter.dto;
+
+import java.time.LocalDateTime;
+
+public record PendingUserDeletion(Long userId, LocalDateTime deletedAt) {
+}
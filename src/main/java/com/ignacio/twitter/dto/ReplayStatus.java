@@ -0,0 +1,18 @@
+package com.ignacio.twitter.dto;
+
+public record ReplayStatus(
+        String projection,
+        State state,
+        long eventsProcessed,
+        long lastEventId,
+        double eventsPerSecond,
+        String error
+) {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
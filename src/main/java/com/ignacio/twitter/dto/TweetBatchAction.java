@@ -0,0 +1,7 @@
+package com.ignacio.twitter.dto;
+
+public enum TweetBatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,13 @@
+package com.ignacio.twitter.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record TweetBatchOperation(
+        @NotNull TweetBatchAction action,
+        Long id,
+        @Size(max = 200) String content,
+        Long authorId,
+        Long version
+) {
+}
@@ -0,0 +1,13 @@
+package com.ignacio.twitter.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TweetBatchRequest(
+        @NotEmpty @Size(max = 5000) List<@Valid @NotNull TweetBatchOperation> operations
+) {
+}
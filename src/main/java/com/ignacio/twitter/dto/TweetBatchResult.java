@@ -0,0 +1,16 @@
+package com.ignacio.twitter.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TweetBatchResult(int index, int status, Long id, String error) {
+
+    public static TweetBatchResult success(int index, HttpStatus status, Long id) {
+        return new TweetBatchResult(index, status.value(), id, null);
+    }
+
+    public static TweetBatchResult failure(int index, HttpStatus status, Long id, String error) {
+        return new TweetBatchResult(index, status.value(), id, error);
+    }
+}
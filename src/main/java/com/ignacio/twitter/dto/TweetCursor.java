@@ -0,0 +1,37 @@
+package com.ignacio.twitter.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record TweetCursor(LocalDateTime timestamp, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = timestamp + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TweetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Missing cursor separator");
+            }
+            LocalDateTime timestamp = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            return new TweetCursor(timestamp, id);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
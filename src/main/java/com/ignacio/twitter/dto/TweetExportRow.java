@@ -0,0 +1,12 @@
+package com.ignacio.twitter.dto;
+
+import java.time.LocalDateTime;
+
+public record TweetExportRow(
+        Long id,
+        String content,
+        LocalDateTime timestamp,
+        Long authorId,
+        LocalDateTime deletedAt
+) {
+}
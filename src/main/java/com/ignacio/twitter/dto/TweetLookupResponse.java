@@ -0,0 +1,6 @@
+package com.ignacio.twitter.dto;
+
+import java.util.List;
+
+public record TweetLookupResponse(List<TweetView> tweets, List<Long> missingIds) {
+}
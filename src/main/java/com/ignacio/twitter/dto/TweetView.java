@@ -0,0 +1,28 @@
+package com.ignacio.twitter.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ignacio.twitter.models.Tweet;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code authorVersion} is the version of the author row the embedded {@link UserSummary} was read
+ * from, so the tweet's ETag changes when the author's handle does.
+ */
+public record TweetView(Long id, String content, LocalDateTime timestamp, UserSummary author,
+                        @JsonIgnore long version, @JsonIgnore long authorVersion) {
+
+    public TweetView(Long id, String content, LocalDateTime timestamp, Long authorId, String authorHandle,
+                     long version, long authorVersion) {
+        this(id, content, timestamp, new UserSummary(authorId, authorHandle), version, authorVersion);
+    }
+
+    public static TweetView from(Tweet tweet) {
+        UserSummary author = tweet.getAuthor() == null
+                ? null
+                : new UserSummary(tweet.getAuthor().getId(), tweet.getAuthor().getHandle());
+        long authorVersion = tweet.getAuthor() == null ? 0 : tweet.getAuthor().getVersion();
+        return new TweetView(tweet.getId(), tweet.getContent(), tweet.getTimestamp(), author, tweet.getVersion(),
+                authorVersion);
+    }
+}
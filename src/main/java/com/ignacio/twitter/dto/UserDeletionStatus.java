@@ -0,0 +1,15 @@
+package com.ignacio.twitter.dto;
+
+public record UserDeletionStatus(
+        Long userId,
+        State state,
+        long tweetsDeleted,
+        String error
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,4 @@
+package com.ignacio.twitter.dto;
+
+public record UserSummary(Long id, String handle) {
+}
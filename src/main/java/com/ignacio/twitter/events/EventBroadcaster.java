@@ -0,0 +1,138 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.configurations.EventStreamProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed events out to the SSE subscribers connected to this node. Each subscriber
+ * owns a bounded buffer drained by its own virtual thread, so publishing never blocks on a
+ * client socket; a subscriber whose buffer overflows is disconnected instead of growing.
+ */
+@Component
+public class EventBroadcaster {
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final EventStreamProperties properties;
+    private final Counter published;
+    private final Counter evicted;
+
+    public EventBroadcaster(EventStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.published = meterRegistry.counter("events.stream.published");
+        this.evicted = meterRegistry.counter("events.stream.evicted");
+        meterRegistry.gaugeCollectionSize("events.stream.subscribers", List.of(), subscriptions);
+    }
+
+    public void publish(EventMessage message) {
+        published.increment();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(message);
+        }
+    }
+
+    /**
+     * Registers a paused subscription so events committed while the caller replays history are
+     * buffered rather than lost. The caller must {@link Subscription#start()} it afterwards.
+     */
+    public Subscription subscribe(SseEmitter emitter) {
+        if (subscriptions.size() >= properties.maxSubscribers()) {
+            return null;
+        }
+        Subscription subscription = new Subscription(emitter, properties.bufferSize());
+        subscriptions.add(subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return subscription;
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public final class Subscription {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventMessage> buffer;
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+        private final Set<Long> replayed = new HashSet<>();
+
+        private Subscription(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public void replay(List<EventMessage> backlog) throws IOException {
+            for (EventMessage message : backlog) {
+                send(message);
+                replayed.add(message.id());
+            }
+        }
+
+        public void start() {
+            sending.set(false);
+            scheduleDrain();
+        }
+
+        private void offer(EventMessage message) {
+            if (!buffer.offer(message)) {
+                evicted.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                EventMessage message;
+                while ((message = buffer.poll()) != null) {
+                    if (!replayed.remove(message.id())) {
+                        send(message);
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                return;
+            }
+            sending.set(false);
+            scheduleDrain();
+        }
+
+        private void send(EventMessage message) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(message.id()))
+                    .name(message.eventType().name())
+                    .data(message, MediaType.APPLICATION_JSON));
+        }
+
+        private void close() {
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.dto.EventMessage;
+
+/**
+ * Carries committed audit events to the {@link EventBroadcaster} of every node that should see
+ * them. Implementations are called after commit and must not throw.
+ */
+public interface EventRelay {
+
+    void publish(EventMessage message);
+}
@@ -0,0 +1,6 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.models.EventType;
+
+public record FollowChangedEvent(Long followerId, Long followeeId, EventType eventType) {
+}
@@ -0,0 +1,19 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.dto.EventMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "events.stream", name = "relay", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalEventRelay implements EventRelay {
+
+    private final EventBroadcaster broadcaster;
+
+    @Override
+    public void publish(EventMessage message) {
+        broadcaster.publish(message);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ignacio.twitter.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ignacio.twitter.configurations.EventStreamProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Publishes events with {@code pg_notify} and keeps one pooled connection in {@code LISTEN} on
+ * the configured channel, handing every notification (including this node's own) to the local
+ * broadcaster. The notify runs in its own transaction because it is issued after the business
+ * transaction has already committed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "events.stream", name = "relay", havingValue = "postgres")
+public class PostgresEventRelay implements EventRelay, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresEventRelay.class);
+    private static final int POLL_TIMEOUT_MILLIS = 1_000;
+    private static final long RECONNECT_DELAY_MILLIS = 2_000;
+
+    private final EventBroadcaster broadcaster;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private volatile Thread listener;
+    private volatile boolean running;
+
+    public PostgresEventRelay(EventBroadcaster broadcaster,
+                              DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              EventStreamProperties properties) {
+        this.broadcaster = broadcaster;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.channel = properties.channel();
+    }
+
+    @Override
+    public void publish(EventMessage message) {
+        try {
+            String payload = objectMapper.writeValueAsString(message);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.queryForList("select pg_notify(?, ?)", channel, payload));
+        } catch (JsonProcessingException | DataAccessException ex) {
+            logger.warn("Failed to relay event {}", message.id(), ex);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Event relay connection lost, reconnecting", ex);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            broadcaster.publish(objectMapper.readValue(payload, EventMessage.class));
+        } catch (JsonProcessingException ex) {
+            logger.warn("Ignoring malformed event notification", ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("event-relay-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = listener;
+        if (current != null) {
+            try {
+                current.join(POLL_TIMEOUT_MILLIS * 2L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
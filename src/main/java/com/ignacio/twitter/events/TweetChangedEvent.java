@@ -0,0 +1,11 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.models.EventType;
+
+public record TweetChangedEvent(Long tweetId, Long authorId, EventType eventType,
+                                String previousContent, String content) {
+
+    public TweetChangedEvent(Long tweetId, Long authorId, EventType eventType) {
+        this(tweetId, authorId, eventType, null, null);
+    }
+}
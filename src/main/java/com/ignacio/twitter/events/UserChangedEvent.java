@@ -0,0 +1,4 @@
+package com.ignacio.twitter.events;
+
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,127 @@
+package com.ignacio.twitter.ids;
+
+import com.ignacio.twitter.configurations.IdProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Decides the node id handed to {@link SortableIdGenerator}. An explicit
+ * {@code twitter.ids.node-id} wins; otherwise the lowest free or expired slot in
+ * {@code id_node_leases} (see V24) is claimed and renewed until shutdown. There is deliberately
+ * no default: two instances on the same node id hand out colliding ids.
+ */
+public class NodeIdLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeIdLease.class);
+
+    private static final String CLAIM_FREE = """
+            insert into id_node_leases (node_id, holder, expires_at)
+            select n, ?, now() + make_interval(secs => ?)
+            from generate_series(0, %d) n
+            where not exists (select 1 from id_node_leases l where l.node_id = n and l.expires_at >= now())
+            order by n
+            limit 1
+            on conflict (node_id) do update set holder = excluded.holder, expires_at = excluded.expires_at
+            where id_node_leases.expires_at < now()
+            returning node_id
+            """.formatted(SnowflakeIds.MAX_NODE_ID);
+
+    private static final String RENEW = """
+            update id_node_leases set expires_at = now() + make_interval(secs => ?)
+            where node_id = ? and holder = ?
+            """;
+
+    private static final String RECLAIM = """
+            insert into id_node_leases (node_id, holder, expires_at)
+            values (?, ?, now() + make_interval(secs => ?))
+            on conflict (node_id) do update set holder = excluded.holder, expires_at = excluded.expires_at
+            where id_node_leases.expires_at < now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdProperties properties;
+    private final String holder;
+    private volatile Integer nodeId;
+    private volatile boolean leased;
+
+    public NodeIdLease(DataSource dataSource, IdProperties properties) {
+        this(new JdbcTemplate(dataSource), properties,
+                ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID());
+    }
+
+    NodeIdLease(JdbcTemplate jdbcTemplate, IdProperties properties, String holder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.holder = holder;
+    }
+
+    public void acquire() {
+        if (properties.nodeId() != null) {
+            nodeId = properties.nodeId();
+            logger.info("Using configured snowflake node id {}", nodeId);
+            return;
+        }
+        if (!properties.lease()) {
+            throw new IllegalStateException("No snowflake node id: set twitter.ids.node-id (TWITTER_NODE_ID) "
+                    + "to a value unique to this instance, or enable twitter.ids.lease");
+        }
+        // A concurrent claim of the same slot makes ours return nothing, so retry once per slot.
+        for (int attempt = 0; attempt <= SnowflakeIds.MAX_NODE_ID; attempt++) {
+            List<Integer> claimed = jdbcTemplate.queryForList(CLAIM_FREE, Integer.class, holder, ttlSeconds());
+            if (!claimed.isEmpty()) {
+                nodeId = claimed.get(0);
+                leased = true;
+                logger.info("Leased snowflake node id {} as {}", nodeId, holder);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free snowflake node id: all " + (SnowflakeIds.MAX_NODE_ID + 1)
+                + " leases in id_node_leases are held by live instances");
+    }
+
+    public int nodeId() {
+        if (nodeId == null) {
+            throw new IllegalStateException("Node id has not been acquired");
+        }
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${twitter.ids.lease-renew-interval:1m}",
+            initialDelayString = "${twitter.ids.lease-renew-interval:1m}")
+    public void renew() {
+        if (!leased) {
+            return;
+        }
+        if (jdbcTemplate.update(RENEW, ttlSeconds(), nodeId, holder) == 1) {
+            return;
+        }
+        // Our row expired (e.g. the database was unreachable for longer than the TTL); take it
+        // back if nobody else has claimed it in the meantime.
+        if (jdbcTemplate.update(RECLAIM, nodeId, holder, ttlSeconds()) == 1) {
+            logger.warn("Snowflake node id {} lease had expired and was reclaimed", nodeId);
+            return;
+        }
+        logger.error("Lost the lease on snowflake node id {} to another instance; ids may collide until restart",
+                nodeId);
+    }
+
+    @PreDestroy
+    public void release() {
+        if (leased) {
+            jdbcTemplate.update("delete from id_node_leases where node_id = ? and holder = ?", nodeId, holder);
+            leased = false;
+        }
+    }
+
+    private double ttlSeconds() {
+        return properties.leaseTtl().toMillis() / 1000.0;
+    }
+}
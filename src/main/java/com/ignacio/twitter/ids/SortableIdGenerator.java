@@ -0,0 +1,44 @@
+package com.ignacio.twitter.ids;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Assigns {@link SnowflakeIds} in memory at persist time, so inserts need no database round
+ * trip and stay batchable. The node id comes from the {@value #NODE_ID_SETTING} Hibernate
+ * setting (filled in by {@link NodeIdLease}) and must be unique per running instance, so there is
+ * no fallback when it is missing.
+ */
+public class SortableIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "twitter.ids.node-id";
+
+    private final SnowflakeIds ids;
+
+    public SortableIdGenerator(SortableId config, Member member, CustomIdGeneratorCreationContext context) {
+        Integer nodeId = ConfigurationHelper.getInteger(NODE_ID_SETTING,
+                context.getServiceRegistry().requireService(ConfigurationService.class).getSettings());
+        if (nodeId == null) {
+            throw new IllegalStateException("Hibernate setting " + NODE_ID_SETTING + " is not set");
+        }
+        this.ids = new SnowflakeIds(nodeId);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return ids.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
@@ -0,0 +1,229 @@
+package com.ignacio.twitter.middleware;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST requests carrying an {@code Idempotency-Key} header safe to retry. The first request
+ * for a key runs normally and its response is stored; later requests with the same key and body
+ * get the stored response back without reaching the controller. A duplicate that arrives while
+ * the first one is still running waits for it instead of executing a second time.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+    private static final IdempotentResponse TIMED_OUT = new IdempotentResponse("", 0, null, new byte[0]);
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, Duration waitTimeout) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = fingerprint(body);
+        String key = scopeOf(request) + "|" + request.getMethod() + " " + request.getRequestURI() + "|" + idempotencyKey;
+
+        while (true) {
+            Optional<IdempotentResponse> stored = store.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), fingerprint, response);
+                return;
+            }
+            CompletableFuture<IdempotentResponse> ours = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, ours);
+            if (running == null) {
+                try {
+                    // The previous owner may have stored its response and left between our find and
+                    // putIfAbsent, so look again now that nobody else can start this key here.
+                    Optional<IdempotentResponse> storedMeanwhile = store.find(key);
+                    if (storedMeanwhile.isPresent()) {
+                        ours.complete(storedMeanwhile.get());
+                        replay(storedMeanwhile.get(), fingerprint, response);
+                    } else {
+                        execute(key, fingerprint, new CachedBodyRequest(request, body), response, filterChain, ours);
+                    }
+                } finally {
+                    ours.complete(null);
+                    inFlight.remove(key, ours);
+                }
+                return;
+            }
+            IdempotentResponse completed = await(running);
+            if (completed == TIMED_OUT) {
+                response.sendError(HttpStatus.CONFLICT.value(),
+                        "A request with this Idempotency-Key is still being processed");
+                return;
+            }
+            if (completed != null) {
+                replay(completed, fingerprint, response);
+                return;
+            }
+            // The first request failed without a storable response; let this one try again.
+        }
+    }
+
+    private void execute(String key, String fingerprint, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain, CompletableFuture<IdempotentResponse> result)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        IdempotentResponse recorded = null;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value() && !request.isAsyncStarted()) {
+                recorded = new IdempotentResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray());
+                try {
+                    store.save(key, recorded);
+                } catch (RuntimeException ex) {
+                    logger.warn("Failed to store idempotent response for key {}", key, ex);
+                }
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            result.complete(recorded);
+        }
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) throws ServletException {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            return TIMED_OUT;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for idempotent request", ex);
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    private void replay(IdempotentResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Idempotency-Key was already used with a different request body");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String scopeOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.userId();
+        }
+        return "anonymous";
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
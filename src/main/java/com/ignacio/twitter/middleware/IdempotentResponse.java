@@ -0,0 +1,4 @@
+package com.ignacio.twitter.middleware;
+
+public record IdempotentResponse(String fingerprint, int status, String contentType, byte[] body) {
+}
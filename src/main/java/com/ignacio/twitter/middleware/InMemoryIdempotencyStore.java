@@ -0,0 +1,33 @@
+package com.ignacio.twitter.middleware;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ignacio.twitter.configurations.IdempotencyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Optional;
+
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.maximumEntries())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        responses.put(key, response);
+    }
+}
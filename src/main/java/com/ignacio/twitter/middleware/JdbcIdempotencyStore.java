@@ -0,0 +1,73 @@
+package com.ignacio.twitter.middleware;
+
+import com.ignacio.twitter.configurations.IdempotencyProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps recent keys in the in-memory store and persists every response to
+ * {@code idempotency_keys}, so a retry that lands on another node or after a restart is still
+ * answered from the first response. Expired rows are purged on a schedule.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final InMemoryIdempotencyStore memory;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(InMemoryIdempotencyStore memory, JdbcTemplate jdbcTemplate,
+                                IdempotencyProperties properties) {
+        this.memory = memory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = properties.ttl();
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        Optional<IdempotentResponse> cached = memory.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        List<IdempotentResponse> rows = jdbcTemplate.query("""
+                        select fingerprint, status, content_type, body
+                        from idempotency_keys
+                        where idempotency_key = ? and expires_at > ?
+                        """,
+                (rs, rowNum) -> new IdempotentResponse(
+                        rs.getString("fingerprint"),
+                        rs.getInt("status"),
+                        rs.getString("content_type"),
+                        rs.getBytes("body")),
+                key, Timestamp.from(Instant.now()));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        memory.save(key, rows.get(0));
+        return Optional.of(rows.get(0));
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        memory.save(key, response);
+        Instant now = Instant.now();
+        jdbcTemplate.update("""
+                        insert into idempotency_keys
+                            (idempotency_key, fingerprint, status, content_type, body, created_at, expires_at)
+                        values (?, ?, ?, ?, ?, ?, ?)
+                        on conflict (idempotency_key) do nothing
+                        """,
+                key, response.fingerprint(), response.status(), response.contentType(), response.body(),
+                Timestamp.from(now), Timestamp.from(now.plus(ttl)));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:15m}")
+    public void purgeExpired() {
+        jdbcTemplate.update("delete from idempotency_keys where expires_at <= ?", Timestamp.from(Instant.now()));
+    }
+}
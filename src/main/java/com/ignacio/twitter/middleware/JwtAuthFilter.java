@@ -1,10 +1,19 @@
 package com.ignacio.twitter.middleware;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.auth.JwtClaims;
 import com.ignacio.twitter.auth.JwtKeyProvider;
+import com.ignacio.twitter.auth.Permission;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,21 +27,65 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Authenticates bearer tokens. Verified tokens are remembered in a bounded cache keyed by the
+ * SHA-256 of the token until they expire, so repeat requests with the same token skip signature
+ * verification and claims parsing.
+ */
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String BEARER_PREFIX = "Bearer ";
+    static final long DEFAULT_CACHE_SIZE = 10_000;
+    private static final Duration MAX_CACHE_TTL = Duration.ofHours(1);
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    private final Key signingKey;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtAuthFilter(String jwtSecret) {
-        this.signingKey = JwtKeyProvider.buildSigningKey(jwtSecret);
+        this(jwtSecret, DEFAULT_CACHE_SIZE, new SimpleMeterRegistry());
+    }
+
+    public JwtAuthFilter(String jwtSecret, long cacheSize, MeterRegistry meterRegistry) {
+        Key signingKey = JwtKeyProvider.buildSigningKey(jwtSecret);
+        this.parser = Jwts.parser()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return token.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
     }
 
     @Override
@@ -43,26 +96,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         Authentication previousAuth = SecurityContextHolder.getContext().getAuthentication();
         boolean authenticationSet = false;
         if (token.isPresent()) {
-            try {
-                Claims claims = Jwts.parser()
-                        .setSigningKey(signingKey)
-                        .build()
-                        .parseClaimsJws(token.get())
-                        .getBody();
-                Long userId = extractUserId(claims);
-                if (userId != null) {
-                    List<String> actions = extractActions(claims);
-                    Authentication authentication = buildAuthentication(userId, actions);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    authenticationSet = true;
-                } else {
-                    String subject = claims.getSubject();
-                    if (subject != null && !subject.isBlank()) {
-                        logger.debug("JWT does not include a numeric user id claim; subject={}", subject);
-                    }
-                }
-            } catch (JwtException ex) {
-                logger.debug("Invalid JWT token", ex);
+            VerifiedToken verified = verify(token.get());
+            if (verified != null) {
+                SecurityContextHolder.getContext().setAuthentication(verified.toAuthentication());
+                authenticationSet = true;
             }
         }
 
@@ -78,6 +115,42 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
     }
 
+    private VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(key);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = extractUserId(claims);
+            if (userId == null) {
+                String subject = claims.getSubject();
+                if (subject != null && !subject.isBlank()) {
+                    logger.debug("JWT does not include a numeric user id claim; subject={}", subject);
+                }
+                return null;
+            }
+            Instant now = Instant.now();
+            Instant expiresAt = claims.getExpiration() == null
+                    ? now.plus(MAX_CACHE_TTL)
+                    : claims.getExpiration().toInstant();
+            List<String> namedActions = extractActions(claims);
+            AuthenticatedUser principal = new AuthenticatedUser(userId,
+                    extractPermissions(claims) | Permission.maskOf(namedActions),
+                    Permission.unmapped(namedActions));
+            VerifiedToken verified = new VerifiedToken(principal, toAuthorities(principal), expiresAt);
+            verifiedTokens.put(key, verified);
+            return verified;
+        } catch (JwtException ex) {
+            logger.debug("Invalid JWT token", ex);
+            return null;
+        }
+    }
+
     private Optional<String> extractBearerToken(HttpServletRequest request) {
         String header = request.getHeader(AUTHORIZATION_HEADER);
         if (header == null || !header.startsWith(BEARER_PREFIX)) {
@@ -90,8 +163,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return Optional.of(token);
     }
 
+    private long extractPermissions(Claims claims) {
+        Object value = claims.get(JwtClaims.PERMISSIONS);
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
     private List<String> extractActions(Claims claims) {
-        Object value = claims.get("actions");
+        Object value = claims.get(JwtClaims.ACTIONS);
         if (value instanceof List<?> list) {
             return list.stream()
                     .filter(item -> item instanceof String)
@@ -102,7 +180,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     }
 
     private Long extractUserId(Claims claims) {
-        Object value = claims.get("userId");
+        Object value = claims.get(JwtClaims.USER_ID);
         if (value instanceof Number number) {
             return number.longValue();
         }
@@ -124,11 +202,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private Authentication buildAuthentication(Long userId, List<String> actions) {
-        List<SimpleGrantedAuthority> authorities = actions.stream()
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static List<SimpleGrantedAuthority> toAuthorities(AuthenticatedUser principal) {
+        return principal.actions().stream()
                 .map(SimpleGrantedAuthority::new)
                 .toList();
-        AuthenticatedUser principal = new AuthenticatedUser(userId, actions);
-        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private record VerifiedToken(AuthenticatedUser principal, List<SimpleGrantedAuthority> authorities,
+                                 Instant expiresAt) {
+
+        Duration timeToLive() {
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            if (remaining.isNegative()) {
+                return Duration.ZERO;
+            }
+            return remaining.compareTo(MAX_CACHE_TTL) > 0 ? MAX_CACHE_TTL : remaining;
+        }
+
+        Authentication toAuthentication() {
+            return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        }
     }
 }
@@ -4,7 +4,10 @@ public enum EventType {
     USER_CREATED,
     USER_UPDATED,
     USER_DELETED,
+    USER_TWEETS_DELETED,
     TWEET_CREATED,
     TWEET_UPDATED,
-    TWEET_DELETED
+    TWEET_DELETED,
+    USER_FOLLOWED,
+    USER_UNFOLLOWED
 }
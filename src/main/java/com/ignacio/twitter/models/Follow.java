@@ -0,0 +1,34 @@
+package com.ignacio.twitter.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "follows")
+@IdClass(FollowId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Follow {
+
+    @Id
+    @Column(name = "follower_id")
+    private Long followerId;
+
+    @Id
+    @Column(name = "followee_id")
+    private Long followeeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
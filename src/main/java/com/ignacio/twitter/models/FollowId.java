@@ -0,0 +1,20 @@
+package com.ignacio.twitter.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FollowId implements Serializable {
+
+    private Long followerId;
+    private Long followeeId;
+}
@@ -0,0 +1,34 @@
+package com.ignacio.twitter.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "projection_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String projection;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "events_processed", nullable = false)
+    private long eventsProcessed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
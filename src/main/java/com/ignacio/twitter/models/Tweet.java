@@ -1,14 +1,16 @@
 package com.ignacio.twitter.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ignacio.twitter.ids.SortableId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -27,7 +29,7 @@ import java.time.LocalDateTime;
 public class Tweet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SortableId
     private Long id;
 
     @Column(length = 200, nullable = false)
@@ -37,8 +39,21 @@ public class Tweet {
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
     private User author;
 
+    @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
+
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+
+    @PrePersist
+    void assignTimestamp() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.ignacio.twitter.replay;
+
+import com.ignacio.twitter.dto.EventMessage;
+
+/**
+ * A read model that can be rebuilt from the events table. During a replay, events for the same
+ * entity id are delivered in id order on a single worker thread, while different entities are
+ * handled concurrently, so implementations must be thread-safe across entities.
+ */
+public interface Projection {
+
+    String name();
+
+    void handle(EventMessage event);
+
+    /**
+     * Persists whatever {@link #handle} accumulated. Called with every worker idle, in the same
+     * transaction that stores the replay checkpoint.
+     */
+    default void flush() {
+    }
+
+    /** Drops anything accumulated since the last {@link #flush}, after a replay fails. */
+    default void discardPending() {
+    }
+
+    /**
+     * Clears the read model before a full replay. A projection that can rebuild itself from a
+     * source of truth other than the events table does so here and returns the id of the last
+     * event that rebuild already reflects; the replay then continues after it. Returning 0 replays
+     * every event.
+     */
+    default long reset() {
+        return 0;
+    }
+}
@@ -0,0 +1,203 @@
+package com.ignacio.twitter.replay;
+
+import com.ignacio.twitter.configurations.ReplayProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.models.ProjectionCheckpoint;
+import com.ignacio.twitter.repositories.EventRepository;
+import com.ignacio.twitter.repositories.ProjectionCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Streams the events table in id order on one reader and shards the events by entity id across
+ * {@code replay.parallelism} workers, which keeps per-entity ordering while handlers run in
+ * parallel. Every {@code replay.checkpoint-interval} events the reader waits for the workers to
+ * drain, then flushes the projection and stores the checkpoint in one transaction, so an
+ * interrupted replay resumes from the last checkpoint.
+ */
+@Component
+public class ReplayEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEngine.class);
+    private static final Object STOP = new Object();
+
+    private final EventRepository eventRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final ReplayProperties properties;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    public ReplayEngine(EventRepository eventRepository,
+                        ProjectionCheckpointRepository checkpointRepository,
+                        ReplayProperties properties,
+                        PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void run(Projection projection, boolean reset, ReplayJob job) {
+        long startAfter = prepare(projection, reset);
+        int parallelism = properties.parallelism();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<BlockingQueue<Object>> queues = new ArrayList<>(parallelism);
+        List<Thread> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+            queues.add(queue);
+            workers.add(Thread.ofPlatform()
+                    .name("replay-" + projection.name() + "-" + i)
+                    .start(() -> work(queue, projection, job, failure)));
+        }
+        Progress progress = new Progress(startAfter);
+        boolean failed = false;
+        try {
+            readTemplate.executeWithoutResult(status -> {
+                try (Stream<EventMessage> events = eventRepository.streamAfter(startAfter)) {
+                    for (EventMessage event : (Iterable<EventMessage>) events::iterator) {
+                        put(queues.get(Math.floorMod(event.entityId(), parallelism)), event);
+                        if (failure.get() != null) {
+                            throw failure.get();
+                        }
+                        progress.lastEventId = event.id();
+                        if (++progress.sinceCheckpoint >= properties.checkpointInterval()) {
+                            checkpoint(projection, queues, failure, progress, job);
+                        }
+                    }
+                }
+            });
+            checkpoint(projection, queues, failure, progress, job);
+            job.complete();
+            logger.info("Replay of {} finished: {}", projection.name(), job.snapshot());
+        } catch (RuntimeException ex) {
+            failed = true;
+            job.fail(ex);
+            logger.error("Replay of {} failed after event {}", projection.name(), progress.lastEventId, ex);
+        } finally {
+            for (BlockingQueue<Object> queue : queues) {
+                queue.clear();
+                put(queue, STOP);
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failed) {
+                projection.discardPending();
+            }
+        }
+    }
+
+    private long prepare(Projection projection, boolean reset) {
+        if (reset) {
+            return writeTemplate.execute(status -> {
+                checkpointRepository.deleteByProjection(projection.name());
+                long rebuiltThrough = projection.reset();
+                if (rebuiltThrough > 0) {
+                    checkpointRepository.save(ProjectionCheckpoint.builder()
+                            .projection(projection.name())
+                            .lastEventId(rebuiltThrough)
+                            .updatedAt(LocalDateTime.now())
+                            .build());
+                }
+                return rebuiltThrough;
+            });
+        }
+        return checkpointRepository.findByProjection(projection.name())
+                .map(ProjectionCheckpoint::getLastEventId)
+                .orElse(0L);
+    }
+
+    private void checkpoint(Projection projection, List<BlockingQueue<Object>> queues,
+                            AtomicReference<RuntimeException> failure, Progress progress, ReplayJob job) {
+        CountDownLatch drained = new CountDownLatch(queues.size());
+        for (BlockingQueue<Object> queue : queues) {
+            put(queue, drained);
+        }
+        try {
+            drained.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", ex);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        writeTemplate.executeWithoutResult(status -> {
+            projection.flush();
+            ProjectionCheckpoint checkpoint = checkpointRepository.findByProjection(projection.name())
+                    .orElseGet(() -> ProjectionCheckpoint.builder().projection(projection.name()).build());
+            checkpoint.setLastEventId(progress.lastEventId);
+            checkpoint.setEventsProcessed(checkpoint.getEventsProcessed() + progress.sinceCheckpoint);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+        progress.sinceCheckpoint = 0;
+        job.checkpointed(progress.lastEventId);
+    }
+
+    private void work(BlockingQueue<Object> queue, Projection projection, ReplayJob job,
+                      AtomicReference<RuntimeException> failure) {
+        while (true) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (item == STOP) {
+                return;
+            }
+            if (item instanceof CountDownLatch drained) {
+                drained.countDown();
+            } else if (failure.get() == null) {
+                try {
+                    projection.handle((EventMessage) item);
+                    job.recordHandled();
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", ex);
+        }
+    }
+
+    private static final class Progress {
+
+        private long lastEventId;
+        private long sinceCheckpoint;
+
+        private Progress(long lastEventId) {
+            this.lastEventId = lastEventId;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ignacio.twitter.replay;
+
+import com.ignacio.twitter.dto.ReplayStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ReplayJob {
+
+    private final String projection;
+    private final long startedNanos = System.nanoTime();
+    private final LongAdder handled = new LongAdder();
+    private volatile long lastEventId;
+    private volatile long finishedNanos;
+    private volatile ReplayStatus.State state = ReplayStatus.State.RUNNING;
+    private volatile String error;
+
+    public ReplayJob(String projection) {
+        this.projection = projection;
+    }
+
+    void recordHandled() {
+        handled.increment();
+    }
+
+    void checkpointed(long eventId) {
+        lastEventId = eventId;
+    }
+
+    void complete() {
+        finishedNanos = System.nanoTime();
+        state = ReplayStatus.State.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        finishedNanos = System.nanoTime();
+        error = cause.getMessage();
+        state = ReplayStatus.State.FAILED;
+    }
+
+    public boolean isRunning() {
+        return state == ReplayStatus.State.RUNNING;
+    }
+
+    public ReplayStatus snapshot() {
+        long processed = handled.sum();
+        long end = state == ReplayStatus.State.RUNNING ? System.nanoTime() : finishedNanos;
+        double seconds = Math.max(end - startedNanos, 1) / 1_000_000_000.0;
+        return new ReplayStatus(projection, state, processed, lastEventId, processed / seconds, error);
+    }
+}
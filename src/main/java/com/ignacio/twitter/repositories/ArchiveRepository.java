@@ -0,0 +1,82 @@
+package com.ignacio.twitter.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves soft-deleted rows into {@code tweets_archive} / {@code users_archive} (see V21). Each call
+ * locks up to {@code limit} candidates with {@code SKIP LOCKED}, copies them and deletes them in
+ * one transaction, so concurrent runs never move the same row twice.
+ */
+@Repository
+public class ArchiveRepository {
+
+    private final EntityManager entityManager;
+
+    public ArchiveRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public int archiveTweets(LocalDateTime cutoff, int limit) {
+        List<Long> ids = lockCandidates("""
+                select id from tweets
+                where deleted_at < :cutoff
+                order by deleted_at
+                limit :limit
+                for update skip locked
+                """, cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.createNativeQuery("""
+                        insert into tweets_archive (id, content, timestamp, user_id, deleted_at, version)
+                        select id, content, timestamp, user_id, deleted_at, version from tweets where id in (:ids)
+                        """)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createNativeQuery("delete from tweets where id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /** Users are only archived once no tweet or follow references them any more. */
+    @Transactional
+    public int archiveUsers(LocalDateTime cutoff, int limit) {
+        List<Long> ids = lockCandidates("""
+                select u.id from users u
+                where u.deleted_at < :cutoff
+                  and not exists (select 1 from tweets t where t.user_id = u.id)
+                  and not exists (select 1 from follows f where f.follower_id = u.id)
+                  and not exists (select 1 from follows f where f.followee_id = u.id)
+                order by u.deleted_at
+                limit :limit
+                for update skip locked
+                """, cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.createNativeQuery("""
+                        insert into users_archive (id, first_name, last_name, email, handle, deleted_at, version, follower_count)
+                        select id, first_name, last_name, email, handle, deleted_at, version, follower_count
+                        from users where id in (:ids)
+                        """)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createNativeQuery("delete from users where id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private List<Long> lockCandidates(String sql, LocalDateTime cutoff, int limit) {
+        List<?> rows = entityManager.createNativeQuery(sql)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Repository
@@ -34,4 +37,48 @@ public class AuthorizationRepository {
                 .map(Object::toString)
                 .collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    public List<Long> findRoleIdsByUserId(Long userId) {
+        @SuppressWarnings("unchecked")
+        List<Number> results = entityManager.createNativeQuery(
+                        "select role_id from user_to_roles where user_id = :userId")
+                .setParameter("userId", userId)
+                .getResultList();
+        return results.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, List<String>> findActionsByRoleId() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                select r.id, pa.action
+                from roles r
+                left join roles_to_scopes rts on rts.role_id = r.id
+                left join scopes_to_permitted_actions stpa on stpa.scope_id = rts.scope_id
+                left join permitted_actions pa on pa.id = stpa.permitted_action_id
+                """)
+                .getResultList();
+        Map<Long, List<String>> actionsByRole = new HashMap<>();
+        for (Object[] row : rows) {
+            List<String> actions = actionsByRole.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>());
+            if (row[1] != null) {
+                actions.add(row[1].toString());
+            }
+        }
+        return actionsByRole;
+    }
+
+    /**
+     * Bumped by triggers (see V22) whenever role, scope or action mappings change.
+     */
+    @Transactional(readOnly = true)
+    public long findRevision() {
+        Number revision = (Number) entityManager.createNativeQuery(
+                        "select revision from authorization_revision where id = 1")
+                .getSingleResult();
+        return revision.longValue();
+    }
 }
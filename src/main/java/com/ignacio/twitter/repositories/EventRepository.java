@@ -1,13 +1,26 @@
 package com.ignacio.twitter.repositories;
 
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.ids.SnowflakeIds;
 import com.ignacio.twitter.models.Event;
 import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public class EventRepository {
 
+    private static final Duration PARTITION_PRUNING_MARGIN = Duration.ofHours(1);
+    private static final int REPLAY_FETCH_SIZE = 5_000;
+
     private final EntityManager entityManager;
 
     public EventRepository(EntityManager entityManager) {
@@ -25,4 +38,65 @@ public class EventRepository {
         }
         return entityManager.merge(event);
     }
+
+    /**
+     * Ids are assigned before commit, so an event with a lower id than {@code afterId} can become
+     * visible after the caller already saw {@code afterId}. The read therefore starts
+     * {@code overlap} before the resume point and may return events the caller has seen; stream
+     * clients dedupe by id (the at-least-once contract documented on the stream endpoint). Sortable ids carry their creation time, so the {@code created_at} lower bound
+     * lets Postgres skip every monthly partition older than the window. The margin covers events
+     * whose timestamp was taken before their id was assigned; ids issued by the old sequence fall
+     * back to an unbounded scan.
+     */
+    @Transactional(readOnly = true)
+    public List<Event> findAfter(Long afterId, Duration overlap, int limit) {
+        Instant idTime = SnowflakeIds.timestampOf(afterId);
+        if (!idTime.isAfter(SnowflakeIds.EPOCH.plus(PARTITION_PRUNING_MARGIN))) {
+            return entityManager.createQuery("select e from events e where e.id > :afterId order by e.id", Event.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        Instant windowStart = idTime.minus(overlap);
+        LocalDateTime createdFrom = LocalDateTime.ofInstant(windowStart.minus(PARTITION_PRUNING_MARGIN), ZoneId.systemDefault());
+        return entityManager.createQuery("""
+                        select e from events e
+                        where e.createdAt >= :createdFrom and e.id >= :fromId and e.id <> :afterId
+                        order by e.id
+                        """, Event.class)
+                .setParameter("createdFrom", createdFrom)
+                .setParameter("fromId", SnowflakeIds.firstIdAt(windowStart))
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public long findMaxId() {
+        return entityManager.createQuery("select coalesce(max(e.id), 0) from events e", Long.class)
+                .getSingleResult();
+    }
+
+    @Transactional(readOnly = true)
+    public Stream<EventMessage> streamAfter(long afterId) {
+        return entityManager.createQuery("""
+                        select new com.ignacio.twitter.dto.EventMessage(
+                            e.id, e.eventType, e.entityType, e.entityId, e.actorUserId, e.createdAt)
+                        from events e
+                        where e.id > :afterId
+                        order by e.id
+                        """, EventMessage.class)
+                .setParameter("afterId", afterId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, REPLAY_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Transactional
+    public void saveAll(List<Event> events) {
+        for (Event event : events) {
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+    }
 }
@@ -0,0 +1,135 @@
+package com.ignacio.twitter.repositories;
+
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.models.Follow;
+import com.ignacio.twitter.models.FollowId;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class FollowRepository {
+
+    private final EntityManager entityManager;
+
+    public FollowRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean existsByFollowerIdAndFolloweeId(Long followerId, Long followeeId) {
+        return entityManager.find(Follow.class, new FollowId(followerId, followeeId)) != null;
+    }
+
+    @Transactional(readOnly = true)
+    public long[] findFolloweeIdsByFollowerId(Long followerId) {
+        return entityManager.createQuery(
+                        "select f.followeeId from follows f where f.followerId = :id order by f.followeeId",
+                        Long.class)
+                .setParameter("id", followerId)
+                .getResultStream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @Transactional(readOnly = true)
+    public long[] findFollowerIdsByFolloweeId(Long followeeId) {
+        return entityManager.createQuery(
+                        "select f.followerId from follows f where f.followeeId = :id order by f.followerId",
+                        Long.class)
+                .setParameter("id", followeeId)
+                .getResultStream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findFolloweeIdsWithFollowerCountAbove(Long followerId, long threshold) {
+        return entityManager.createQuery(
+                        "select f.followeeId from follows f join users u on u.id = f.followeeId"
+                                + " where f.followerId = :id and u.followerCount > :threshold",
+                        Long.class)
+                .setParameter("id", followerId)
+                .setParameter("threshold", threshold)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummary> findFollowersPage(Long followeeId, IdCursor after, int limit) {
+        return findPage("followerId", "followeeId", followeeId, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummary> findFollowingPage(Long followerId, IdCursor after, int limit) {
+        return findPage("followeeId", "followerId", followerId, after, limit);
+    }
+
+    @Transactional
+    public Follow save(Follow follow) {
+        entityManager.persist(follow);
+        return follow;
+    }
+
+    /**
+     * Inserts the edge unless it already exists. Concurrent follows of the same user race on the
+     * primary key, so the conflict is resolved by the database instead of a prior lookup.
+     */
+    @Transactional
+    public boolean insertIfAbsent(Long followerId, Long followeeId, LocalDateTime createdAt) {
+        return entityManager.createNativeQuery(
+                        "insert into follows (follower_id, followee_id, created_at)"
+                                + " values (:followerId, :followeeId, :createdAt) on conflict do nothing")
+                .setParameter("followerId", followerId)
+                .setParameter("followeeId", followeeId)
+                .setParameter("createdAt", createdAt)
+                .executeUpdate() == 1;
+    }
+
+    @Transactional
+    public int deleteByFollowerIdAndFolloweeId(Long followerId, Long followeeId) {
+        return entityManager.createQuery(
+                        "delete from follows f where f.followerId = :followerId and f.followeeId = :followeeId")
+                .setParameter("followerId", followerId)
+                .setParameter("followeeId", followeeId)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public int deleteByFolloweeId(Long followeeId) {
+        return entityManager.createQuery("delete from follows f where f.followeeId = :followeeId")
+                .setParameter("followeeId", followeeId)
+                .executeUpdate();
+    }
+
+    /** Blocks inserts and deletes on follows until the calling transaction ends. */
+    @Transactional
+    public void lockAgainstWrites() {
+        entityManager.createNativeQuery("lock table follows in share mode").executeUpdate();
+    }
+
+    @Transactional
+    public void deleteAll() {
+        entityManager.createQuery("delete from follows").executeUpdate();
+    }
+
+    private List<UserSummary> findPage(String listed, String owner, Long userId, IdCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("select new com.ignacio.twitter.dto.UserSummary(u.id, u.handle)"
+                + " from follows f join users u on u.id = f." + listed
+                + " where f." + owner + " = :userId and u.deletedAt is null");
+        if (after != null) {
+            jpql.append(" and f.").append(listed).append(" > :afterId");
+        }
+        jpql.append(" order by f.").append(listed);
+        TypedQuery<UserSummary> query = entityManager.createQuery(jpql.toString(), UserSummary.class)
+                .setParameter("userId", userId);
+        if (after != null) {
+            query.setParameter("afterId", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ignacio.twitter.repositories;
+
+import com.ignacio.twitter.models.ProjectionCheckpoint;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public class ProjectionCheckpointRepository {
+
+    private final EntityManager entityManager;
+
+    public ProjectionCheckpointRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProjectionCheckpoint> findByProjection(String projection) {
+        return Optional.ofNullable(entityManager.find(ProjectionCheckpoint.class, projection));
+    }
+
+    @Transactional
+    public ProjectionCheckpoint save(ProjectionCheckpoint checkpoint) {
+        return entityManager.merge(checkpoint);
+    }
+
+    @Transactional
+    public void deleteByProjection(String projection) {
+        entityManager.createQuery("delete from projection_checkpoints c where c.projection = :projection")
+                .setParameter("projection", projection)
+                .executeUpdate();
+    }
+}
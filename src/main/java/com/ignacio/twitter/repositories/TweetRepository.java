@@ -1,16 +1,31 @@
 package com.ignacio.twitter.repositories;
 
+import com.ignacio.twitter.dto.PendingUserDeletion;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetView;
 import com.ignacio.twitter.models.Tweet;
+import com.ignacio.twitter.models.User;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class TweetRepository {
 
+    private static final String VIEW_PROJECTION =
+            "new com.ignacio.twitter.dto.TweetView(t.id, t.content, t.timestamp, a.id, a.handle, t.version, a.version)";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
     private final EntityManager entityManager;
 
     public TweetRepository(EntityManager entityManager) {
@@ -25,6 +40,100 @@ public class TweetRepository {
                 .getResultList();
     }
 
+    @Transactional(readOnly = true)
+    public List<TweetView> findPageByDeletedAtIsNull(TweetCursor after, int limit) {
+        return findPage(null, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TweetView> findPageByAuthorIdAndDeletedAtIsNull(Long authorId, TweetCursor after, int limit) {
+        return findPage(authorId, after, limit);
+    }
+
+    /** Deleted users that still have live tweets, i.e. whose cascade never finished. */
+    @Transactional(readOnly = true)
+    public List<PendingUserDeletion> findDeletedAuthorsWithLiveTweets(int limit) {
+        return entityManager.createQuery(
+                        "select distinct new com.ignacio.twitter.dto.PendingUserDeletion(a.id, a.deletedAt)"
+                                + " from tweets t join t.author a"
+                                + " where t.deletedAt is null and a.deletedAt is not null",
+                        PendingUserDeletion.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TweetView> findViewByIdAndDeletedAtIsNull(Long id) {
+        List<TweetView> results = entityManager.createQuery(
+                        "select " + VIEW_PROJECTION + " from tweets t join t.author a"
+                                + " where t.id = :id and t.deletedAt is null",
+                        TweetView.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (results.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(results.get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TweetView> findViewsByIdInAndDeletedAtIsNull(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "select " + VIEW_PROJECTION + " from tweets t join t.author a"
+                                + " where t.id in :ids and t.deletedAt is null",
+                        TweetView.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findRecentIdsForHomeTimeline(Long userId, int limit) {
+        return entityManager.createQuery("""
+                        select t.id from tweets t
+                        where t.deletedAt is null
+                          and (t.author.id = :userId
+                               or t.author.id in (select f.followeeId from follows f where f.followerId = :userId))
+                        order by t.id desc
+                        """, Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findIdsByAuthorIdInAndDeletedAtIsNull(Collection<Long> authorIds, Long beforeId, int limit) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder jpql = new StringBuilder(
+                "select t.id from tweets t where t.author.id in :authorIds and t.deletedAt is null");
+        if (beforeId != null) {
+            jpql.append(" and t.id < :beforeId");
+        }
+        jpql.append(" order by t.id desc");
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class)
+                .setParameter("authorIds", authorIds);
+        if (beforeId != null) {
+            query.setParameter("beforeId", beforeId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Tweet> findAllByIdInAndDeletedAtIsNull(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "select t from tweets t where t.id in :ids and t.deletedAt is null",
+                        Tweet.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     @Transactional(readOnly = true)
     public Optional<Tweet> findByIdAndDeletedAtIsNull(Long id) {
         List<Tweet> results = entityManager.createQuery(
@@ -38,11 +147,45 @@ public class TweetRepository {
         return Optional.of(results.get(0));
     }
 
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<TweetExportRow> streamAllForExport() {
+        return entityManager.createQuery("""
+                        select new com.ignacio.twitter.dto.TweetExportRow(
+                            t.id, t.content, t.timestamp, t.author.id, t.deletedAt)
+                        from tweets t
+                        order by t.id
+                        """, TweetExportRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
     @Transactional(readOnly = true)
     public Optional<Tweet> findById(Long id) {
         return Optional.ofNullable(entityManager.find(Tweet.class, id));
     }
 
+    private List<TweetView> findPage(Long authorId, TweetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("select " + VIEW_PROJECTION
+                + " from tweets t join t.author a where t.deletedAt is null");
+        if (authorId != null) {
+            jpql.append(" and t.author.id = :authorId");
+        }
+        if (after != null) {
+            jpql.append(" and t.timestamp <= :timestamp and (t.timestamp < :timestamp or t.id < :id)");
+        }
+        jpql.append(" order by t.timestamp desc, t.id desc");
+        TypedQuery<TweetView> query = entityManager.createQuery(jpql.toString(), TweetView.class);
+        if (authorId != null) {
+            query.setParameter("authorId", authorId);
+        }
+        if (after != null) {
+            query.setParameter("timestamp", after.timestamp());
+            query.setParameter("id", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
     @Transactional
     public Tweet save(Tweet tweet) {
         if (tweet.getId() == null) {
@@ -55,6 +198,54 @@ public class TweetRepository {
         return entityManager.merge(tweet);
     }
 
+    /**
+     * Rewrites content and author in a single statement, only if the tweet is live, still at
+     * {@code expectedVersion} and the new author exists. Returns false when any of those fail.
+     */
+    @Transactional
+    public boolean updateIfVersionMatches(Long id, long expectedVersion, String content, Long authorId) {
+        return entityManager.createQuery("""
+                        update tweets t
+                        set t.content = :content, t.author = :author, t.version = t.version + 1
+                        where t.id = :id and t.deletedAt is null and t.version = :version
+                          and exists (select u.id from users u where u.id = :authorId and u.deletedAt is null)
+                        """)
+                .setParameter("content", content)
+                .setParameter("author", entityManager.getReference(User.class, authorId))
+                .setParameter("authorId", authorId)
+                .setParameter("id", id)
+                .setParameter("version", expectedVersion)
+                .executeUpdate() == 1;
+    }
+
+    @Transactional
+    public boolean softDeleteIfVersionMatches(Long id, long expectedVersion, LocalDateTime deletedAt) {
+        return entityManager.createQuery("""
+                        update tweets t
+                        set t.deletedAt = :deletedAt, t.version = t.version + 1
+                        where t.id = :id and t.deletedAt is null and t.version = :version
+                        """)
+                .setParameter("deletedAt", deletedAt)
+                .setParameter("id", id)
+                .setParameter("version", expectedVersion)
+                .executeUpdate() == 1;
+    }
+
+    @Transactional
+    public int softDeleteByIdIn(Collection<Long> ids, LocalDateTime deletedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("""
+                        update tweets t
+                        set t.deletedAt = :deletedAt, t.version = t.version + 1
+                        where t.id in :ids and t.deletedAt is null
+                        """)
+                .setParameter("deletedAt", deletedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
     @Transactional
     public void deleteAll() {
         entityManager.createQuery("delete from tweets").executeUpdate();
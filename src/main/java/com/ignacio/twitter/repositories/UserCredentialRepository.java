@@ -35,6 +35,23 @@ public class UserCredentialRepository {
         return Optional.ofNullable(entityManager.find(UserCredential.class, userId));
     }
 
+    /**
+     * Replaces the stored hash only if it is still {@code expectedHash}, so a rehash on login
+     * never overwrites a password that was changed in the meantime.
+     */
+    @Transactional
+    public boolean updatePasswordHashIfUnchanged(Long userId, String expectedHash,
+                                                 String passwordHash, String passwordSalt) {
+        return entityManager.createQuery(
+                        "update user_credentials uc set uc.passwordHash = :passwordHash, uc.passwordSalt = :passwordSalt "
+                                + "where uc.userId = :userId and uc.passwordHash = :expectedHash")
+                .setParameter("passwordHash", passwordHash)
+                .setParameter("passwordSalt", passwordSalt)
+                .setParameter("userId", userId)
+                .setParameter("expectedHash", expectedHash)
+                .executeUpdate() == 1;
+    }
+
     @Transactional
     public UserCredential save(UserCredential credential) {
         if (credential.getUserId() == null) {
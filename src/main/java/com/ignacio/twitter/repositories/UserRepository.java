@@ -5,12 +5,15 @@ import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class UserRepository {
 
+    private static final int RECOUNT_BATCH_SIZE = 1000;
+
     private final EntityManager entityManager;
 
     public UserRepository(EntityManager entityManager) {
@@ -38,6 +41,80 @@ public class UserRepository {
         return Optional.of(results.get(0));
     }
 
+    @Transactional(readOnly = true)
+    public List<User> findAllByIdInAndDeletedAtIsNull(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "select u from users u where u.id in :ids and u.deletedAt is null",
+                        User.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionByIdAndDeletedAtIsNull(Long id) {
+        List<Long> results = entityManager.createQuery(
+                        "select u.version from users u where u.id = :id and u.deletedAt is null",
+                        Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (results.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(results.get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public long findFollowerCount(Long id) {
+        List<Long> results = entityManager.createQuery(
+                        "select u.followerCount from users u where u.id = :id",
+                        Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return results.isEmpty() ? 0 : results.get(0);
+    }
+
+    @Transactional
+    public void adjustFollowerCount(Long id, long delta) {
+        // Without the explicit cast Hibernate types the parameter from the column definition
+        // ("bigint default 0 not null"), which H2 rejects.
+        entityManager.createQuery(
+                        "update users u set u.followerCount = u.followerCount + cast(:delta as Long) where u.id = :id")
+                .setParameter("delta", delta)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public void rebuildFollowerCounts() {
+        entityManager.createQuery("""
+                        update users u
+                        set u.followerCount = (select count(f) from follows f where f.followeeId = u.id)
+                        where u.followerCount <> (select count(f) from follows f where f.followeeId = u.id)
+                        """)
+                .executeUpdate();
+    }
+
+    /**
+     * Overwrites the counts of {@code ids} with the number of rows in {@code follows}, so running it
+     * twice, or after the live path already adjusted a count, leaves the same result.
+     */
+    @Transactional
+    public void recountFollowerCounts(Collection<Long> ids) {
+        List<Long> remaining = List.copyOf(ids);
+        for (int from = 0; from < remaining.size(); from += RECOUNT_BATCH_SIZE) {
+            entityManager.createQuery("""
+                            update users u
+                            set u.followerCount = (select count(f) from follows f where f.followeeId = u.id)
+                            where u.id in :ids
+                            """)
+                    .setParameter("ids", remaining.subList(from, Math.min(from + RECOUNT_BATCH_SIZE, remaining.size())))
+                    .executeUpdate();
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return Optional.ofNullable(entityManager.find(User.class, id));
@@ -83,6 +160,7 @@ public class UserRepository {
 
     @Transactional
     public void deleteAll() {
+        entityManager.createNativeQuery("delete from follows").executeUpdate();
         entityManager.createNativeQuery("delete from user_to_roles").executeUpdate();
         entityManager.createNativeQuery("delete from user_credentials").executeUpdate();
         entityManager.createQuery("delete from users").executeUpdate();
@@ -0,0 +1,230 @@
+package com.ignacio.twitter.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of tweet ids stored as blocks of varint-encoded deltas. Ids usually arrive in
+ * ascending order and land in an uncompressed tail that is sealed once it fills up; out of
+ * order inserts and removals rewrite the single block that covers the id.
+ */
+final class PostingList {
+
+    static final int BLOCK_SIZE = 128;
+
+    private long[] blockFirstIds = new long[1];
+    private byte[][] blocks = new byte[1][];
+    private int[] blockSizes = new int[1];
+    private int blockCount;
+    private long[] tail = new long[BLOCK_SIZE];
+    private int tailSize;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean add(long id) {
+        if (tailSize > 0 ? id > tail[tailSize - 1] : blockCount == 0 || id > lastIdOfBlock(blockCount - 1)) {
+            tail[tailSize++] = id;
+            size++;
+            if (tailSize == BLOCK_SIZE) {
+                seal();
+            }
+            return true;
+        }
+        if (tailSize > 0 && (id >= tail[0] || blockCount == 0)) {
+            int index = Arrays.binarySearch(tail, 0, tailSize, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            System.arraycopy(tail, insertAt, tail, insertAt + 1, tailSize - insertAt);
+            tail[insertAt] = id;
+            tailSize++;
+            size++;
+            if (tailSize == BLOCK_SIZE) {
+                seal();
+            }
+            return true;
+        }
+        int block = Math.max(0, blockAtMost(id));
+        long[] ids = decode(block);
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        size++;
+        if (updated.length > 2 * BLOCK_SIZE) {
+            int half = updated.length / 2;
+            replaceBlock(block, Arrays.copyOfRange(updated, 0, half));
+            insertBlock(block + 1, Arrays.copyOfRange(updated, half, updated.length));
+        } else {
+            replaceBlock(block, updated);
+        }
+        return true;
+    }
+
+    boolean remove(long id) {
+        if (tailSize > 0 && id >= tail[0]) {
+            int index = Arrays.binarySearch(tail, 0, tailSize, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(tail, index + 1, tail, index, tailSize - index - 1);
+            tailSize--;
+            size--;
+            return true;
+        }
+        int block = blockAtMost(id);
+        if (block < 0) {
+            return false;
+        }
+        long[] ids = decode(block);
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return false;
+        }
+        size--;
+        if (ids.length == 1) {
+            deleteBlock(block);
+            return true;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        replaceBlock(block, updated);
+        return true;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Walks the list from newest to oldest. Each call to {@link #seekAtMost(long)} must pass a
+     * target no larger than the previous one.
+     */
+    final class Cursor {
+
+        private int decodedBlock = -1;
+        private long[] decoded;
+
+        long seekAtMost(long target) {
+            if (tailSize > 0 && tail[0] <= target) {
+                return largestAtMost(tail, tailSize, target);
+            }
+            int block = blockAtMost(target);
+            if (block < 0) {
+                return -1;
+            }
+            if (block != decodedBlock) {
+                decoded = decode(block);
+                decodedBlock = block;
+            }
+            return largestAtMost(decoded, decoded.length, target);
+        }
+    }
+
+    private static long largestAtMost(long[] ids, int length, long target) {
+        int index = Arrays.binarySearch(ids, 0, length, target);
+        if (index >= 0) {
+            return ids[index];
+        }
+        int insertAt = -index - 1;
+        return insertAt == 0 ? -1 : ids[insertAt - 1];
+    }
+
+    private int blockAtMost(long id) {
+        int low = 0;
+        int high = blockCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (blockFirstIds[mid] <= id) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private long lastIdOfBlock(int block) {
+        long[] ids = decode(block);
+        return ids[ids.length - 1];
+    }
+
+    private void seal() {
+        insertBlock(blockCount, Arrays.copyOf(tail, tailSize));
+        tailSize = 0;
+    }
+
+    private void insertBlock(int index, long[] ids) {
+        if (blockCount == blocks.length) {
+            int capacity = blocks.length * 2;
+            blockFirstIds = Arrays.copyOf(blockFirstIds, capacity);
+            blocks = Arrays.copyOf(blocks, capacity);
+            blockSizes = Arrays.copyOf(blockSizes, capacity);
+        }
+        System.arraycopy(blockFirstIds, index, blockFirstIds, index + 1, blockCount - index);
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        System.arraycopy(blockSizes, index, blockSizes, index + 1, blockCount - index);
+        blockCount++;
+        replaceBlock(index, ids);
+    }
+
+    private void deleteBlock(int index) {
+        System.arraycopy(blockFirstIds, index + 1, blockFirstIds, index, blockCount - index - 1);
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        System.arraycopy(blockSizes, index + 1, blockSizes, index, blockCount - index - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+
+    private void replaceBlock(int index, long[] ids) {
+        blockFirstIds[index] = ids[0];
+        blockSizes[index] = ids.length;
+        blocks[index] = encode(ids);
+    }
+
+    private long[] decode(int block) {
+        byte[] bytes = blocks[block];
+        long[] ids = new long[blockSizes[block]];
+        long previous = blockFirstIds[block];
+        ids[0] = previous;
+        int position = 0;
+        for (int i = 1; i < ids.length; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += delta;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static byte[] encode(long[] ids) {
+        byte[] buffer = new byte[(ids.length - 1) * 10];
+        int position = 0;
+        for (int i = 1; i < ids.length; i++) {
+            long delta = ids[i] - ids[i - 1];
+            while ((delta & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            buffer[position++] = (byte) delta;
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ignacio.twitter.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ignacio.twitter.search;
+
+import com.ignacio.twitter.events.TweetChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class TweetSearchIndex {
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public TweetSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("search.index.terms", this, TweetSearchIndex::termCount).register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public void add(long tweetId, String content) {
+        Set<String> terms = Tokenizer.tokenize(content);
+        lock.writeLock().lock();
+        try {
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(tweetId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long tweetId, String content) {
+        Set<String> terms = Tokenizer.tokenize(content);
+        lock.writeLock().lock();
+        try {
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null && list.remove(tweetId) && list.size() == 0) {
+                    postings.remove(term);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(Collection<String> terms, Long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            return intersect(lists, beforeId == null ? Long.MAX_VALUE : beforeId - 1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTweetChanged(TweetChangedEvent event) {
+        if (event.previousContent() != null) {
+            remove(event.tweetId(), event.previousContent());
+        }
+        if (event.content() != null) {
+            add(event.tweetId(), event.content());
+        }
+    }
+
+    private List<Long> intersect(List<PostingList> lists, long startAt, int limit) {
+        List<PostingList.Cursor> cursors = lists.stream().map(PostingList::cursor).toList();
+        List<Long> matches = new ArrayList<>(limit);
+        long candidate = startAt;
+        while (matches.size() < limit && candidate >= 0) {
+            boolean agreed = true;
+            for (PostingList.Cursor cursor : cursors) {
+                long found = cursor.seekAtMost(candidate);
+                if (found < 0) {
+                    return matches;
+                }
+                if (found < candidate) {
+                    candidate = found;
+                    agreed = false;
+                    break;
+                }
+            }
+            if (agreed) {
+                matches.add(candidate);
+                candidate--;
+            }
+        }
+        return matches;
+    }
+
+    private double termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ignacio.twitter.search;
+
+import com.ignacio.twitter.configurations.SearchProperties;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.repositories.TweetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+@Component
+public class TweetSearchIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(TweetSearchIndexLoader.class);
+
+    private final TweetSearchIndex index;
+    private final TweetRepository tweetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProperties properties;
+
+    public TweetSearchIndexLoader(TweetSearchIndex index,
+                                  TweetRepository tweetRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  SearchProperties properties) {
+        this.index = index;
+        this.tweetRepository = tweetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!properties.buildOnStartup()) {
+            index.markReady();
+            return;
+        }
+        Thread.ofPlatform().name("search-index-loader").daemon().start(this::build);
+    }
+
+    void build() {
+        long started = System.nanoTime();
+        try {
+            long indexed = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<TweetExportRow> rows = tweetRepository.streamAllForExport()) {
+                    for (TweetExportRow row : (Iterable<TweetExportRow>) rows::iterator) {
+                        if (row.deletedAt() == null) {
+                            index.add(row.id(), row.content());
+                            count++;
+                        }
+                    }
+                }
+                return count;
+            });
+            index.markReady();
+            logger.info("Search index built with {} tweets in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            logger.error("Search index build failed", ex);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.AuditProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.events.EventRelay;
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.repositories.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit rows either inside the caller's transaction (outbox mode) or, in async mode,
+ * queues them once the caller commits and lets a single writer thread insert them in batches
+ * whenever {@code audit.batch-size} rows are waiting or {@code audit.flush-interval} elapses.
+ * Until the writer is started, and after it stops, async mode writes inline like outbox mode;
+ * anything queued when it stops is drained on the stopping thread. A failed batch is retried
+ * {@code audit.write-attempts} times with a doubling {@code audit.retry-backoff} before it is
+ * counted as dropped. Either way, rows are handed to the {@link EventRelay} only once they are
+ * committed.
+ */
+@Component
+public class AuditEventWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final EventRepository eventRepository;
+    private final EventRelay eventRelay;
+    private final AuditProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public AuditEventWriter(EventRepository eventRepository,
+                            EventRelay eventRelay,
+                            AuditProperties properties,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventRelay = eventRelay;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushTimer = meterRegistry.timer("audit.flush");
+        this.written = meterRegistry.counter("audit.events.written");
+        this.dropped = meterRegistry.counter("audit.events.dropped");
+        meterRegistry.gauge("audit.queue.depth", depth);
+    }
+
+    public void record(Event event) {
+        boolean inline = properties.mode() == AuditProperties.Mode.OUTBOX || !running;
+        if (inline) {
+            eventRepository.save(event);
+        }
+        Runnable afterCommit = inline ? () -> eventRelay.publish(EventMessage.from(event)) : () -> enqueue(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    afterCommit.run();
+                }
+            });
+        } else {
+            afterCommit.run();
+        }
+    }
+
+    void enqueue(Event event) {
+        if (stopped) {
+            write(List.of(event));
+            return;
+        }
+        if (depth.incrementAndGet() > properties.queueCapacity()) {
+            depth.decrementAndGet();
+            if (properties.overflow() == AuditProperties.Overflow.DROP) {
+                dropped.increment();
+            } else {
+                write(List.of(event));
+            }
+            return;
+        }
+        queue.offer(event);
+        if (stopped) {
+            // the writer may have finished its final drain before this event was queued
+            drain();
+            return;
+        }
+        Thread current = writer;
+        if (current != null && depth.get() >= properties.batchSize()) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    int flush() {
+        List<Event> batch = new ArrayList<>(Math.min(depth.get(), properties.batchSize()));
+        Event event;
+        while (batch.size() < properties.batchSize() && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        depth.addAndGet(-batch.size());
+        write(batch);
+        return batch.size();
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    private void drain() {
+        while (flush() > 0) {
+            // keep going until the queue is empty
+        }
+    }
+
+    private void write(List<Event> batch) {
+        long backoffNanos = properties.retryBackoff().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> eventRepository.saveAll(batch)));
+                written.increment(batch.size());
+                break;
+            } catch (RuntimeException ex) {
+                if (attempt >= properties.writeAttempts()) {
+                    dropped.increment(batch.size());
+                    logger.error("Failed to write {} audit events after {} attempts", batch.size(), attempt, ex);
+                    return;
+                }
+                logger.warn("Failed to write {} audit events, retrying (attempt {})", batch.size(), attempt, ex);
+                // ids handed out by the rolled-back attempt would make the events look detached
+                batch.forEach(event -> event.setId(null));
+                LockSupport.parkNanos(this, backoffNanos);
+                backoffNanos *= 2;
+            }
+        }
+        for (Event event : batch) {
+            eventRelay.publish(EventMessage.from(event));
+        }
+    }
+
+    private void drainLoop() {
+        long intervalNanos = properties.flushInterval().toNanos();
+        while (running) {
+            if (flush() < properties.batchSize()) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void start() {
+        if (properties.mode() != AuditProperties.Mode.ASYNC || running) {
+            return;
+        }
+        stopped = false;
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = writer;
+        running = false;
+        if (current == null) {
+            return;
+        }
+        stopped = true;
+        LockSupport.unpark(current);
+        try {
+            current.join(properties.flushInterval().toMillis() * 10 + 1_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        // commits that land after this point are written inline by enqueue
+        drain();
+    }
+
+    // Start before and stop after the web server so requests still in flight can enqueue.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,11 +1,14 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.auth.PasswordHashingUnavailableException;
+import com.ignacio.twitter.cache.PermissionCache;
 import com.ignacio.twitter.dto.TokenRequest;
 import com.ignacio.twitter.dto.TokenResponse;
 import com.ignacio.twitter.models.UserCredential;
-import com.ignacio.twitter.repositories.AuthorizationRepository;
 import com.ignacio.twitter.repositories.UserCredentialRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,8 +20,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
     private final UserCredentialRepository userCredentialRepository;
-    private final AuthorizationRepository authorizationRepository;
+    private final PermissionCache permissionCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
 
@@ -28,9 +33,31 @@ public class AuthService {
         if (!passwordEncoder.matches(request.password(), credential.getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
+        rehashIfNeeded(credential, request.password());
         Long userId = credential.getUserId();
-        List<String> actions = authorizationRepository.findPermittedActionsByUserId(userId);
+        List<String> actions = permissionCache.actionsForUser(userId);
         String token = jwtTokenService.createToken(credential.getUsername(), userId, actions);
         return new TokenResponse(token, actions);
     }
+
+    /**
+     * Brings a hash made at a lower BCrypt cost up to the current one while the plain-text
+     * password is at hand. Best effort: the sign-in succeeds even if the pool is saturated.
+     */
+    private void rehashIfNeeded(UserCredential credential, String password) {
+        if (!passwordEncoder.upgradeEncoding(credential.getPasswordHash())) {
+            return;
+        }
+        try {
+            String hashed = passwordEncoder.encode(password);
+            userCredentialRepository.updatePasswordHashIfUnchanged(credential.getUserId(),
+                    credential.getPasswordHash(), hashed, extractSalt(hashed));
+        } catch (PasswordHashingUnavailableException ex) {
+            logger.debug("Skipping rehash for user {}: hashing pool saturated", credential.getUserId());
+        }
+    }
+
+    private String extractSalt(String hash) {
+        return hash.length() >= 29 ? hash.substring(0, 29) : hash;
+    }
 }
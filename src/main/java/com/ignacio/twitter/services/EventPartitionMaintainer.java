@@ -0,0 +1,162 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.EventPartitionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of {@code events} (see V18) ahead of the clock and retires the
+ * ones older than {@code events.partitions.retention-months}. Runs at startup and daily, under
+ * a transaction-scoped advisory lock so concurrent nodes do not race on the DDL.
+ *
+ * <p>Rows that landed in the DEFAULT partition (because their month had no partition yet) are
+ * moved into a monthly partition of their own, which both lets that partition be attached and
+ * brings those rows under the normal retention. Each partition is created under its own
+ * savepoint so one failure does not abort the rest of the run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "events.partitions", name = "enabled", havingValue = "true")
+public class EventPartitionMaintainer {
+
+    static final String PARTITION_PREFIX = "events_p";
+    static final String DEFAULT_PARTITION = "events_default";
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPartitionMaintainer.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final long ADVISORY_LOCK_KEY = 0x6576656E7473L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventPartitionProperties properties;
+
+    @Autowired
+    public EventPartitionMaintainer(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    EventPartitionProperties properties) {
+        this(new JdbcTemplate(dataSource), transactionManager, properties);
+    }
+
+    EventPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EventPartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${events.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("select pg_advisory_xact_lock(" + ADVISORY_LOCK_KEY + ")");
+            Set<YearMonth> months = new TreeSet<>();
+            for (int ahead = 0; ahead <= properties.premadeMonths(); ahead++) {
+                months.add(current.plusMonths(ahead));
+            }
+            months.addAll(monthsInDefaultPartition());
+            for (YearMonth month : months) {
+                createPartition(month);
+            }
+            List<String> partitions = jdbcTemplate.queryForList("""
+                    select c.relname
+                    from pg_inherits i
+                    join pg_class c on c.oid = i.inhrelid
+                    join pg_class p on p.oid = i.inhparent
+                    where p.relname = 'events'
+                    """, String.class);
+            for (String partition : expiredPartitions(partitions, current.minusMonths(properties.retentionMonths()))) {
+                retire(partition);
+            }
+        });
+    }
+
+    private List<YearMonth> monthsInDefaultPartition() {
+        return jdbcTemplate.queryForList(
+                        "select distinct to_char(created_at, 'YYYY-MM') from " + DEFAULT_PARTITION, String.class)
+                .stream()
+                .map(YearMonth::parse)
+                .toList();
+    }
+
+    /**
+     * Postgres refuses {@code create table ... partition of} while DEFAULT holds rows for that
+     * range, so the table is created detached, the matching rows are moved into it, and only
+     * then is it attached.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        Boolean exists = jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partition);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        jdbcTemplate.execute("savepoint create_partition");
+        try {
+            jdbcTemplate.execute("create table " + partition
+                    + " (like events including defaults including constraints)");
+            int moved = jdbcTemplate.update("with moved as (delete from " + DEFAULT_PARTITION
+                    + " where created_at >= " + from + " and created_at < " + to
+                    + " returning *) insert into " + partition + " select * from moved");
+            jdbcTemplate.execute("alter table events attach partition " + partition
+                    + " for values from (" + from + ") to (" + to + ")");
+            jdbcTemplate.execute("release savepoint create_partition");
+            if (moved > 0) {
+                logger.info("Moved {} events from {} into new partition {}", moved, DEFAULT_PARTITION, partition);
+            }
+        } catch (DataAccessException ex) {
+            jdbcTemplate.execute("rollback to savepoint create_partition");
+            logger.error("Could not create events partition {}", partition, ex);
+        }
+    }
+
+    private void retire(String partition) {
+        jdbcTemplate.execute("alter table events detach partition " + partition);
+        if (properties.retentionAction() == EventPartitionProperties.RetentionAction.DROP) {
+            jdbcTemplate.execute("drop table " + partition);
+        }
+        logger.info("Retired events partition {} ({})", partition, properties.retentionAction());
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    static List<String> expiredPartitions(List<String> partitions, YearMonth oldestKept) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            try {
+                YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+                if (month.isBefore(oldestKept)) {
+                    expired.add(partition);
+                }
+            } catch (DateTimeParseException ignored) {
+                // not one of ours
+            }
+        }
+        return expired;
+    }
+}
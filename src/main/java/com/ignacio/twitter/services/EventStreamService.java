@@ -0,0 +1,8 @@
+package com.ignacio.twitter.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface EventStreamService {
+
+    SseEmitter subscribe(Long lastEventId);
+}
@@ -0,0 +1,44 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.EventStreamProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.events.EventBroadcaster;
+import com.ignacio.twitter.repositories.EventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class EventStreamServiceImpl implements EventStreamService {
+
+    private final EventBroadcaster broadcaster;
+    private final EventRepository eventRepository;
+    private final EventStreamProperties properties;
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        EventBroadcaster.Subscription subscription = broadcaster.subscribe(emitter);
+        if (subscription == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream subscribers");
+        }
+        if (lastEventId != null && properties.backfillLimit() > 0) {
+            List<EventMessage> backlog = eventRepository.findAfter(lastEventId, properties.resumeOverlap(), properties.backfillLimit()).stream()
+                    .map(EventMessage::from)
+                    .toList();
+            try {
+                subscription.replay(backlog);
+            } catch (IOException ex) {
+                emitter.completeWithError(ex);
+                return emitter;
+            }
+        }
+        subscription.start();
+        return emitter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+
+public interface FollowService {
+    void follow(Long followeeId);
+
+    void unfollow(Long followeeId);
+
+    CursorPage<UserSummary> listFollowers(Long userId, int limit, IdCursor cursor);
+
+    CursorPage<UserSummary> listFollowing(Long userId, int limit, IdCursor cursor);
+
+    boolean isFollowing(Long followerId, Long followeeId);
+
+    void removeAllFollowsOf(Long userId);
+}
@@ -0,0 +1,128 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.cache.FollowGraphCache;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.events.FollowChangedEvent;
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class FollowServiceImpl implements FollowService {
+
+    private static final String ENTITY_TYPE_USER = "user";
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final AuditEventWriter auditEventWriter;
+    private final FollowGraphCache followGraphCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void follow(Long followeeId) {
+        Long followerId = requireActorUserId();
+        if (followerId.equals(followeeId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Users cannot follow themselves");
+        }
+        ensureUserExists(followeeId);
+        if (!followRepository.insertIfAbsent(followerId, followeeId, LocalDateTime.now())) {
+            return;
+        }
+        userRepository.adjustFollowerCount(followeeId, 1);
+        recordChange(EventType.USER_FOLLOWED, followerId, followeeId);
+    }
+
+    @Transactional
+    public void unfollow(Long followeeId) {
+        Long followerId = requireActorUserId();
+        if (followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) > 0) {
+            userRepository.adjustFollowerCount(followeeId, -1);
+            recordChange(EventType.USER_UNFOLLOWED, followerId, followeeId);
+        }
+    }
+
+    /**
+     * Drops every follow edge of a user being deleted. The users it follows are unfollowed one by
+     * one so their counts and the audit log stay consistent; its own followers are removed in a
+     * single statement, and only their cached follow graphs need to hear about it.
+     */
+    @Transactional
+    public void removeAllFollowsOf(Long userId) {
+        for (long followeeId : followRepository.findFolloweeIdsByFollowerId(userId)) {
+            if (followRepository.deleteByFollowerIdAndFolloweeId(userId, followeeId) > 0) {
+                userRepository.adjustFollowerCount(followeeId, -1);
+                recordChange(EventType.USER_UNFOLLOWED, userId, followeeId);
+            }
+        }
+        long[] followerIds = followRepository.findFollowerIdsByFolloweeId(userId);
+        if (followerIds.length == 0) {
+            return;
+        }
+        int removed = followRepository.deleteByFolloweeId(userId);
+        userRepository.adjustFollowerCount(userId, -removed);
+        for (long followerId : followerIds) {
+            eventPublisher.publishEvent(new FollowChangedEvent(followerId, userId, EventType.USER_UNFOLLOWED));
+        }
+    }
+
+    public CursorPage<UserSummary> listFollowers(Long userId, int limit, IdCursor cursor) {
+        return toPage(userId, followRepository.findFollowersPage(userId, cursor, limit + 1), limit);
+    }
+
+    public CursorPage<UserSummary> listFollowing(Long userId, int limit, IdCursor cursor) {
+        return toPage(userId, followRepository.findFollowingPage(userId, cursor, limit + 1), limit);
+    }
+
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        return followGraphCache.isFollowing(followerId, followeeId, followRepository::findFolloweeIdsByFollowerId);
+    }
+
+    private CursorPage<UserSummary> toPage(Long userId, List<UserSummary> users, int limit) {
+        if (users.isEmpty()) {
+            ensureUserExists(userId);
+        }
+        return CursorPage.of(users, limit, user -> new IdCursor(user.id()).encode());
+    }
+
+    private void ensureUserExists(Long userId) {
+        if (userRepository.findByIdAndDeletedAtIsNull(userId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+    }
+
+    private void recordChange(EventType eventType, Long followerId, Long followeeId) {
+        auditEventWriter.record(Event.builder()
+                .eventType(eventType)
+                .entityType(ENTITY_TYPE_USER)
+                .entityId(followeeId)
+                .actorUserId(followerId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, eventType));
+    }
+
+    private Long requireActorUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser
+                && authenticatedUser.userId() != null) {
+            return authenticatedUser.userId();
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user required");
+    }
+}
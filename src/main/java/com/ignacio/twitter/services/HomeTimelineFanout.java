@@ -0,0 +1,64 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.cache.FollowGraphCache;
+import com.ignacio.twitter.cache.HomeTimelineStore;
+import com.ignacio.twitter.configurations.TimelineConfig;
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class HomeTimelineFanout {
+
+    private final HomeTimelineStore homeTimelineStore;
+    private final FollowGraphCache followGraphCache;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final TimelineProperties properties;
+    private final Counter deliveries;
+    private final Counter skippedAuthors;
+
+    public HomeTimelineFanout(HomeTimelineStore homeTimelineStore,
+                              FollowGraphCache followGraphCache,
+                              FollowRepository followRepository,
+                              UserRepository userRepository,
+                              TimelineProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.homeTimelineStore = homeTimelineStore;
+        this.followGraphCache = followGraphCache;
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.deliveries = meterRegistry.counter("timeline.fanout.deliveries");
+        this.skippedAuthors = meterRegistry.counter("timeline.fanout.skipped");
+    }
+
+    @Async(TimelineConfig.FANOUT_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTweetChanged(TweetChangedEvent event) {
+        if (event.eventType() != EventType.TWEET_CREATED || event.authorId() == null) {
+            return;
+        }
+        homeTimelineStore.push(event.authorId(), event.tweetId());
+        if (userRepository.findFollowerCount(event.authorId()) > properties.fanoutFollowerThreshold()) {
+            skippedAuthors.increment();
+            return;
+        }
+        long[] followers = followGraphCache.followers(event.authorId(), followRepository::findFollowerIdsByFolloweeId);
+        int delivered = 0;
+        for (long followerId : followers) {
+            if (homeTimelineStore.push(followerId, event.tweetId())) {
+                delivered++;
+            }
+        }
+        deliveries.increment(delivered);
+    }
+}
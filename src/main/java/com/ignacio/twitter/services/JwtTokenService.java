@@ -1,7 +1,10 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.auth.JwtClaims;
 import com.ignacio.twitter.auth.JwtKeyProvider;
+import com.ignacio.twitter.auth.Permission;
 import com.ignacio.twitter.configurations.JwtProperties;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
@@ -26,13 +29,24 @@ public class JwtTokenService {
         this.signingKey = JwtKeyProvider.buildSigningKey(jwtProperties.secret());
     }
 
+    /**
+     * Known actions travel as the {@code perm} bitmask; only actions without a {@link Permission}
+     * bit are listed by name, unless {@code jwt.legacy-actions-claim} asks for the full list so
+     * nodes that predate the bitmask can still read new tokens. That is the default until every
+     * node reads {@code perm}.
+     */
     public String createToken(String username, Long userId, List<String> actions) {
         Instant now = Instant.now();
         List<String> safeActions = actions == null ? List.of() : actions;
-        return Jwts.builder()
+        List<String> namedActions = jwtProperties.legacyActionsClaim() ? safeActions : Permission.unmapped(safeActions);
+        JwtBuilder builder = Jwts.builder()
                 .subject(username)
-                .claim("userId", userId)
-                .claim("actions", safeActions)
+                .claim(JwtClaims.USER_ID, userId)
+                .claim(JwtClaims.PERMISSIONS, Permission.maskOf(safeActions));
+        if (!namedActions.isEmpty()) {
+            builder.claim(JwtClaims.ACTIONS, namedActions);
+        }
+        return builder
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusSeconds(jwtProperties.ttlSeconds())))
                 .signWith(signingKey)
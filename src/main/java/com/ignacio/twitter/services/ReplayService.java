@@ -0,0 +1,10 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.dto.ReplayStatus;
+
+public interface ReplayService {
+
+    ReplayStatus startReplay(String projection, boolean reset);
+
+    ReplayStatus getStatus(String projection);
+}
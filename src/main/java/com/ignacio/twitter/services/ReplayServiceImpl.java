@@ -0,0 +1,66 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.dto.ReplayStatus;
+import com.ignacio.twitter.replay.Projection;
+import com.ignacio.twitter.replay.ReplayEngine;
+import com.ignacio.twitter.replay.ReplayJob;
+import com.ignacio.twitter.repositories.ProjectionCheckpointRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ReplayServiceImpl implements ReplayService {
+
+    private final ReplayEngine replayEngine;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final Map<String, Projection> projections;
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    public ReplayServiceImpl(ReplayEngine replayEngine,
+                             ProjectionCheckpointRepository checkpointRepository,
+                             ObjectProvider<Projection> projections) {
+        this.replayEngine = replayEngine;
+        this.checkpointRepository = checkpointRepository;
+        this.projections = projections.orderedStream()
+                .collect(Collectors.toUnmodifiableMap(Projection::name, Function.identity()));
+    }
+
+    public ReplayStatus startReplay(String projection, boolean reset) {
+        Projection target = requireProjection(projection);
+        ReplayJob job = new ReplayJob(projection);
+        ReplayJob previous = jobs.compute(projection,
+                (name, existing) -> existing != null && existing.isRunning() ? existing : job);
+        if (previous != job) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Replay already running");
+        }
+        Thread.ofPlatform().name("replay-" + projection).start(() -> replayEngine.run(target, reset, job));
+        return job.snapshot();
+    }
+
+    public ReplayStatus getStatus(String projection) {
+        requireProjection(projection);
+        ReplayJob job = jobs.get(projection);
+        if (job != null) {
+            return job.snapshot();
+        }
+        return checkpointRepository.findByProjection(projection)
+                .map(checkpoint -> new ReplayStatus(projection, ReplayStatus.State.IDLE,
+                        checkpoint.getEventsProcessed(), checkpoint.getLastEventId(), 0, null))
+                .orElseGet(() -> new ReplayStatus(projection, ReplayStatus.State.IDLE, 0, 0, 0, null));
+    }
+
+    private Projection requireProjection(String projection) {
+        Projection target = projections.get(projection);
+        if (target == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Projection not found");
+        }
+        return target;
+    }
+}
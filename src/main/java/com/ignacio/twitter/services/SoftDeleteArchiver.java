@@ -0,0 +1,96 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.ArchiveProperties;
+import com.ignacio.twitter.repositories.ArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves tweets and users soft deleted longer than {@code archive.retention} ago out of the hot
+ * tables into {@code tweets_archive} / {@code users_archive} (see V21) through
+ * {@link ArchiveRepository}. Each batch is bounded by {@code archive.batch-size} and followed by
+ * {@code archive.batch-pause} so the job never monopolises the database. Users are only archived
+ * once nothing references them any more.
+ */
+@Component
+@ConditionalOnProperty(prefix = "archive", name = "enabled", havingValue = "true")
+public class SoftDeleteArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoftDeleteArchiver.class);
+
+    private final ArchiveRepository archiveRepository;
+    private final ArchiveProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SoftDeleteArchiver(ArchiveRepository archiveRepository, ArchiveProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 45 3 * * *}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.retention());
+        // Tweets first so users whose tweets were just archived qualify in the same run.
+        drain("tweets", archiveRepository::archiveTweets, cutoff);
+        drain("users", archiveRepository::archiveUsers, cutoff);
+    }
+
+    long drain(String table, Batch batchMover, LocalDateTime cutoff) {
+        Counter moved = Counter.builder("archive.rows.moved")
+                .description("Soft-deleted rows moved into the archive tables")
+                .tag("table", table)
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder("archive.batch")
+                .tag("table", table)
+                .register(meterRegistry);
+        long total = 0;
+        long startNanos = System.nanoTime();
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int count = batchMover.move(cutoff, properties.batchSize());
+            sample.stop(batchTimer);
+            moved.increment(count);
+            total += count;
+            if (count < properties.batchSize()) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1_000_000_000.0;
+            logger.info("Archived {} {} rows ({} rows/s)", total, table, Math.round(total / seconds));
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (properties.batchPause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.batchPause());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** One bounded archive batch; returns how many rows it moved. */
+    @FunctionalInterface
+    interface Batch {
+        int move(LocalDateTime cutoff, int limit);
+    }
+}
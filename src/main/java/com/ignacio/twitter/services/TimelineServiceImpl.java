@@ -0,0 +1,79 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.cache.HomeTimelineStore;
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.TweetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private final HomeTimelineStore homeTimelineStore;
+    private final TweetRepository tweetRepository;
+    private final FollowRepository followRepository;
+    private final TweetService tweetService;
+    private final TimelineProperties properties;
+
+    public CursorPage<TweetView> homeTimeline(int limit, IdCursor cursor) {
+        Long userId = requireActorUserId();
+        Long beforeId = cursor == null ? null : cursor.id();
+        long[] pushed = homeTimelineStore.read(userId, this::materialize, beforeId, limit + 1);
+        List<Long> celebrities = followRepository.findFolloweeIdsWithFollowerCountAbove(
+                userId, properties.fanoutFollowerThreshold());
+        List<Long> pulled = tweetRepository.findIdsByAuthorIdInAndDeletedAtIsNull(celebrities, beforeId, limit + 1);
+        List<Long> ids = mergeNewestFirst(pushed, pulled, limit + 1);
+        String nextCursor = ids.size() > limit ? new IdCursor(ids.get(limit - 1)).encode() : null;
+        List<Long> pageIds = ids.subList(0, Math.min(limit, ids.size()));
+        if (pageIds.isEmpty()) {
+            return new CursorPage<>(List.of(), nextCursor);
+        }
+        return new CursorPage<>(tweetService.lookupTweets(pageIds).tweets(), nextCursor);
+    }
+
+    private long[] materialize(Long userId) {
+        return tweetRepository.findRecentIdsForHomeTimeline(userId, properties.capacity()).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private List<Long> mergeNewestFirst(long[] pushed, List<Long> pulled, int limit) {
+        List<Long> merged = new ArrayList<>(limit);
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < pushed.length || j < pulled.size())) {
+            long next;
+            if (j >= pulled.size() || (i < pushed.length && pushed[i] >= pulled.get(j))) {
+                next = pushed[i++];
+            } else {
+                next = pulled.get(j++);
+            }
+            if (merged.isEmpty() || merged.get(merged.size() - 1) != next) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private Long requireActorUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser
+                && authenticatedUser.userId() != null) {
+            return authenticatedUser.userId();
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user required");
+    }
+}
@@ -0,0 +1,9 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetView;
+
+public interface TweetSearchService {
+    CursorPage<TweetView> searchTweets(String query, int limit, IdCursor cursor);
+}
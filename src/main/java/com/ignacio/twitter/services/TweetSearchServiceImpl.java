@@ -0,0 +1,72 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.SearchProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.search.Tokenizer;
+import com.ignacio.twitter.search.TweetSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class TweetSearchServiceImpl implements TweetSearchService {
+
+    private final TweetSearchIndex index;
+    private final TweetService tweetService;
+    private final SearchProperties properties;
+    private final Timer queryTimer;
+
+    public TweetSearchServiceImpl(TweetSearchIndex index,
+                                  TweetService tweetService,
+                                  SearchProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.index = index;
+        this.tweetService = tweetService;
+        this.properties = properties;
+        this.queryTimer = Timer.builder("search.query").publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+
+    public CursorPage<TweetView> searchTweets(String query, int limit, IdCursor cursor) {
+        Set<String> terms = Tokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must contain at least one term");
+        }
+        if (terms.size() > properties.maxQueryTerms()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query must contain at most " + properties.maxQueryTerms() + " terms");
+        }
+        if (!index.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is warming up");
+        }
+        return queryTimer.record(() -> search(terms, limit, cursor == null ? null : cursor.id()));
+    }
+
+    private CursorPage<TweetView> search(Set<String> terms, int limit, Long beforeId) {
+        List<TweetView> matches = new ArrayList<>(limit + 1);
+        while (matches.size() <= limit) {
+            List<Long> candidates = index.search(terms, beforeId, limit + 1);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (TweetView tweet : tweetService.lookupTweets(candidates).tweets()) {
+                if (Tokenizer.tokenize(tweet.content()).containsAll(terms)) {
+                    matches.add(tweet);
+                }
+            }
+            if (candidates.size() <= limit) {
+                break;
+            }
+            beforeId = candidates.get(candidates.size() - 1);
+        }
+        List<TweetView> fetched = matches.subList(0, Math.min(matches.size(), limit + 1));
+        return CursorPage.of(fetched, limit, tweet -> new IdCursor(tweet.id()).encode());
+    }
+}
@@ -1,18 +1,33 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.TweetBatchOperation;
+import com.ignacio.twitter.dto.TweetBatchResponse;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetLookupResponse;
 import com.ignacio.twitter.dto.TweetRequest;
-import com.ignacio.twitter.models.Tweet;
+import com.ignacio.twitter.dto.TweetView;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TweetService {
-    List<Tweet> listTweets();
+    CursorPage<TweetView> listTweets(int limit, TweetCursor cursor);
 
-    Tweet getTweet(Long id);
+    CursorPage<TweetView> listTweetsByAuthor(Long authorId, int limit, TweetCursor cursor);
 
-    Tweet createTweet(TweetRequest request);
+    TweetView getTweet(Long id);
 
-    Tweet updateTweet(Long id, TweetRequest request);
+    TweetLookupResponse lookupTweets(List<Long> ids);
 
-    void deleteTweet(Long id);
+    TweetView createTweet(TweetRequest request);
+
+    TweetView updateTweet(Long id, TweetRequest request, Long expectedVersion);
+
+    void deleteTweet(Long id, Long expectedVersion);
+
+    TweetBatchResponse applyBatch(List<TweetBatchOperation> operations);
+
+    void exportTweets(Consumer<TweetExportRow> sink);
 }
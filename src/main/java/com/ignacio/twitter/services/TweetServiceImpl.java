@@ -1,15 +1,27 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.cache.TweetCache;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.TweetBatchAction;
+import com.ignacio.twitter.dto.TweetBatchOperation;
+import com.ignacio.twitter.dto.TweetBatchResponse;
+import com.ignacio.twitter.dto.TweetBatchResult;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetLookupResponse;
 import com.ignacio.twitter.dto.TweetRequest;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
 import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.events.TweetChangedEvent;
 import com.ignacio.twitter.models.Event;
 import com.ignacio.twitter.models.EventType;
 import com.ignacio.twitter.models.Tweet;
 import com.ignacio.twitter.models.User;
-import com.ignacio.twitter.repositories.EventRepository;
 import com.ignacio.twitter.repositories.TweetRepository;
 import com.ignacio.twitter.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,7 +30,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,19 +50,52 @@ public class TweetServiceImpl implements TweetService {
 
     private final TweetRepository tweetRepository;
     private final UserRepository userRepository;
-    private final EventRepository eventRepository;
+    private final AuditEventWriter auditEventWriter;
+    private final TweetCache tweetCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<Tweet> listTweets() {
-        return tweetRepository.findAllByDeletedAtIsNull();
+    public CursorPage<TweetView> listTweets(int limit, TweetCursor cursor) {
+        List<TweetView> tweets = tweetRepository.findPageByDeletedAtIsNull(cursor, limit + 1);
+        return toPage(tweets, limit);
     }
 
-    public Tweet getTweet(Long id) {
-        return tweetRepository.findByIdAndDeletedAtIsNull(id)
+    public CursorPage<TweetView> listTweetsByAuthor(Long authorId, int limit, TweetCursor cursor) {
+        List<TweetView> tweets = tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(authorId, cursor, limit + 1);
+        if (tweets.isEmpty() && userRepository.findByIdAndDeletedAtIsNull(authorId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return toPage(tweets, limit);
+    }
+
+    public TweetView getTweet(Long id) {
+        return tweetCache.get(id, tweetRepository::findViewByIdAndDeletedAtIsNull)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tweet not found"));
     }
 
+    public TweetLookupResponse lookupTweets(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, TweetView> found = new HashMap<>(tweetCache.getAllPresent(requested));
+        List<Long> toLoad = requested.stream()
+                .filter(id -> !found.containsKey(id) && !tweetCache.isKnownMissing(id))
+                .toList();
+        for (TweetView view : tweetRepository.findViewsByIdInAndDeletedAtIsNull(toLoad)) {
+            found.put(view.id(), view);
+        }
+        List<TweetView> tweets = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            TweetView view = found.get(id);
+            if (view == null) {
+                missingIds.add(id);
+            } else {
+                tweets.add(view);
+            }
+        }
+        return new TweetLookupResponse(tweets, missingIds);
+    }
+
     @Transactional
-    public Tweet createTweet(TweetRequest request) {
+    public TweetView createTweet(TweetRequest request) {
         Long actorUserId = resolveActorUserId();
         User author = userRepository.findByIdAndDeletedAtIsNull(request.authorId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
@@ -50,30 +105,180 @@ public class TweetServiceImpl implements TweetService {
                 .timestamp(LocalDateTime.now())
                 .build();
         Tweet created = tweetRepository.save(tweet);
-        eventRepository.save(buildEvent(EventType.TWEET_CREATED, created.getId(), actorUserId));
-        return created;
+        auditEventWriter.record(buildEvent(EventType.TWEET_CREATED, created.getId(), actorUserId));
+        publishChange(created, EventType.TWEET_CREATED, null);
+        return TweetView.from(created);
     }
 
     @Transactional
-    public Tweet updateTweet(Long id, TweetRequest request) {
+    public TweetView updateTweet(Long id, TweetRequest request, Long expectedVersion) {
         Long actorUserId = resolveActorUserId();
-        Tweet tweet = getTweet(id);
-        User author = userRepository.findByIdAndDeletedAtIsNull(request.authorId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        tweet.setContent(request.content());
-        tweet.setAuthor(author);
-        Tweet updated = tweetRepository.save(tweet);
-        eventRepository.save(buildEvent(EventType.TWEET_UPDATED, updated.getId(), actorUserId));
-        return updated;
+        TweetView current = loadView(id, expectedVersion);
+        if (!tweetRepository.updateIfVersionMatches(id, current.version(), request.content(), request.authorId())) {
+            if (userRepository.findByIdAndDeletedAtIsNull(request.authorId()).isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+            }
+            throw conflict(id, expectedVersion);
+        }
+        auditEventWriter.record(buildEvent(EventType.TWEET_UPDATED, id, actorUserId));
+        publishChange(id, request.authorId(), EventType.TWEET_UPDATED, current.content(), request.content());
+        TweetView authorSource = request.authorId().equals(current.author().id())
+                ? current
+                : tweetRepository.findViewByIdAndDeletedAtIsNull(id).orElse(null);
+        UserSummary author = authorSource == null ? null : authorSource.author();
+        long authorVersion = authorSource == null ? 0 : authorSource.authorVersion();
+        return new TweetView(id, request.content(), current.timestamp(), author, current.version() + 1, authorVersion);
     }
 
     @Transactional
-    public void deleteTweet(Long id) {
+    public void deleteTweet(Long id, Long expectedVersion) {
         Long actorUserId = resolveActorUserId();
-        Tweet tweet = getTweet(id);
-        tweet.setDeletedAt(LocalDateTime.now());
-        tweetRepository.save(tweet);
-        eventRepository.save(buildEvent(EventType.TWEET_DELETED, tweet.getId(), actorUserId));
+        TweetView current = loadView(id, expectedVersion);
+        if (!tweetRepository.softDeleteIfVersionMatches(id, current.version(), LocalDateTime.now())) {
+            throw conflict(id, expectedVersion);
+        }
+        auditEventWriter.record(buildEvent(EventType.TWEET_DELETED, id, actorUserId));
+        publishChange(id, current.author().id(), EventType.TWEET_DELETED, current.content(), null);
+    }
+
+    /**
+     * Updates and deletes go through the same version-checked statements as the single-tweet
+     * endpoints, so a concurrent edit fails only its own item (412 when the item carried a
+     * version, 409 otherwise) instead of the whole batch at flush time.
+     */
+    @Transactional
+    public TweetBatchResponse applyBatch(List<TweetBatchOperation> operations) {
+        Long actorUserId = resolveActorUserId();
+        Map<Long, User> authors = userRepository.findAllByIdInAndDeletedAtIsNull(
+                        collectIds(operations, TweetBatchOperation::authorId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, BatchTarget> tweets = tweetRepository.findAllByIdInAndDeletedAtIsNull(
+                        collectIds(operations, TweetBatchOperation::id)).stream()
+                .collect(Collectors.toMap(Tweet::getId, BatchTarget::of));
+        List<TweetBatchResult> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(applyOperation(index, operations.get(index), authors, tweets, actorUserId));
+        }
+        return new TweetBatchResponse(results);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTweets(Consumer<TweetExportRow> sink) {
+        try (Stream<TweetExportRow> rows = tweetRepository.streamAllForExport()) {
+            rows.forEach(sink);
+        }
+    }
+
+    private TweetBatchResult applyOperation(int index, TweetBatchOperation operation, Map<Long, User> authors,
+                                            Map<Long, BatchTarget> tweets, Long actorUserId) {
+        boolean needsContent = operation.action() != TweetBatchAction.DELETE;
+        boolean needsId = operation.action() != TweetBatchAction.CREATE;
+        if ((needsContent && (operation.content() == null || operation.content().isBlank()
+                || operation.authorId() == null)) || (needsId && operation.id() == null)) {
+            return TweetBatchResult.failure(index, HttpStatus.BAD_REQUEST, operation.id(),
+                    needsContent ? "content and authorId are required" : "id is required");
+        }
+        BatchTarget tweet = needsId ? tweets.get(operation.id()) : null;
+        if (needsId && tweet == null) {
+            return TweetBatchResult.failure(index, HttpStatus.NOT_FOUND, operation.id(), "Tweet not found");
+        }
+        User author = needsContent ? authors.get(operation.authorId()) : null;
+        if (needsContent && author == null) {
+            return TweetBatchResult.failure(index, HttpStatus.NOT_FOUND, operation.id(), "User not found");
+        }
+        return switch (operation.action()) {
+            case CREATE -> {
+                Tweet created = tweetRepository.save(Tweet.builder()
+                        .content(operation.content())
+                        .author(author)
+                        .timestamp(LocalDateTime.now())
+                        .build());
+                auditEventWriter.record(buildEvent(EventType.TWEET_CREATED, created.getId(), actorUserId));
+                publishChange(created, EventType.TWEET_CREATED, null);
+                yield TweetBatchResult.success(index, HttpStatus.CREATED, created.getId());
+            }
+            case UPDATE -> {
+                long expectedVersion = operation.version() != null ? operation.version() : tweet.version();
+                if (!tweetRepository.updateIfVersionMatches(operation.id(), expectedVersion, operation.content(),
+                        author.getId())) {
+                    yield versionFailure(index, operation);
+                }
+                tweets.put(operation.id(), new BatchTarget(expectedVersion + 1, operation.content(), author.getId()));
+                auditEventWriter.record(buildEvent(EventType.TWEET_UPDATED, operation.id(), actorUserId));
+                publishChange(operation.id(), author.getId(), EventType.TWEET_UPDATED, tweet.content(),
+                        operation.content());
+                yield TweetBatchResult.success(index, HttpStatus.OK, operation.id());
+            }
+            case DELETE -> {
+                long expectedVersion = operation.version() != null ? operation.version() : tweet.version();
+                if (!tweetRepository.softDeleteIfVersionMatches(operation.id(), expectedVersion, LocalDateTime.now())) {
+                    yield versionFailure(index, operation);
+                }
+                tweets.remove(operation.id());
+                auditEventWriter.record(buildEvent(EventType.TWEET_DELETED, operation.id(), actorUserId));
+                publishChange(operation.id(), tweet.authorId(), EventType.TWEET_DELETED, tweet.content(), null);
+                yield TweetBatchResult.success(index, HttpStatus.NO_CONTENT, operation.id());
+            }
+        };
+    }
+
+    private TweetBatchResult versionFailure(int index, TweetBatchOperation operation) {
+        ResponseStatusException failure = conflict(operation.id(), operation.version());
+        return TweetBatchResult.failure(index, HttpStatus.valueOf(failure.getStatusCode().value()), operation.id(),
+                failure.getReason());
+    }
+
+    private Set<Long> collectIds(List<TweetBatchOperation> operations, Function<TweetBatchOperation, Long> idOf) {
+        return operations.stream()
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private TweetView loadView(Long id, Long expectedVersion) {
+        TweetView current = tweetRepository.findViewByIdAndDeletedAtIsNull(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tweet not found"));
+        if (expectedVersion != null && expectedVersion != current.version()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Tweet has been modified");
+        }
+        return current;
+    }
+
+    /**
+     * The conditional update matched nothing although the tweet was live a moment ago: either it
+     * was deleted or another writer bumped the version in between.
+     */
+    private ResponseStatusException conflict(Long id, Long expectedVersion) {
+        if (tweetRepository.findViewByIdAndDeletedAtIsNull(id).isEmpty()) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Tweet not found");
+        }
+        return expectedVersion != null
+                ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Tweet has been modified")
+                : new ResponseStatusException(HttpStatus.CONFLICT, "Tweet was modified concurrently");
+    }
+
+    private CursorPage<TweetView> toPage(List<TweetView> tweets, int limit) {
+        return CursorPage.of(tweets, limit, tweet -> new TweetCursor(tweet.timestamp(), tweet.id()).encode());
+    }
+
+    private void publishChange(Tweet tweet, EventType eventType, String previousContent) {
+        Long authorId = tweet.getAuthor() == null ? null : tweet.getAuthor().getId();
+        String content = eventType == EventType.TWEET_DELETED ? null : tweet.getContent();
+        publishChange(tweet.getId(), authorId, eventType, previousContent, content);
+    }
+
+    private void publishChange(Long tweetId, Long authorId, EventType eventType, String previousContent,
+                               String content) {
+        eventPublisher.publishEvent(new TweetChangedEvent(tweetId, authorId, eventType, previousContent, content));
+    }
+
+    /** What a batch knows about a tweet it touches, kept current as earlier items apply. */
+    private record BatchTarget(long version, String content, Long authorId) {
+
+        static BatchTarget of(Tweet tweet) {
+            return new BatchTarget(tweet.getVersion(), tweet.getContent(),
+                    tweet.getAuthor() == null ? null : tweet.getAuthor().getId());
+        }
     }
 
     private Event buildEvent(EventType eventType, Long entityId, Long actorUserId) {
@@ -1,5 +1,6 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.dto.UserDeletionStatus;
 import com.ignacio.twitter.dto.UserRequest;
 import com.ignacio.twitter.models.User;
 
@@ -10,9 +11,13 @@ public interface UserService {
 
     User getUser(Long id);
 
+    long getUserVersion(Long id);
+
     User createUser(UserRequest request);
 
     User updateUser(Long id, UserRequest request);
 
     void deleteUser(Long id);
+
+    UserDeletionStatus getDeletionStatus(Long id);
 }
@@ -1,16 +1,18 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.dto.UserDeletionStatus;
 import com.ignacio.twitter.dto.UserRequest;
 import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.events.UserChangedEvent;
 import com.ignacio.twitter.models.Event;
 import com.ignacio.twitter.models.EventType;
 import com.ignacio.twitter.models.User;
 import com.ignacio.twitter.models.UserCredential;
-import com.ignacio.twitter.repositories.EventRepository;
 import com.ignacio.twitter.repositories.RoleRepository;
 import com.ignacio.twitter.repositories.UserCredentialRepository;
 import com.ignacio.twitter.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,7 +34,10 @@ public class UserServiceImpl implements UserService {
     private final UserCredentialRepository userCredentialRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EventRepository eventRepository;
+    private final AuditEventWriter auditEventWriter;
+    private final UserTweetCascade userTweetCascade;
+    private final FollowService followService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<User> listUsers() {
         return repository.findAllByDeletedAtIsNull();
@@ -43,6 +48,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     }
 
+    public long getUserVersion(Long id) {
+        return repository.findVersionByIdAndDeletedAtIsNull(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
     @Transactional
     public User createUser(UserRequest request) {
         Long actorUserId = resolveActorUserId();
@@ -58,7 +68,7 @@ public class UserServiceImpl implements UserService {
         UserCredential credential = buildCredential(created, request.username(), request.password());
         userCredentialRepository.save(credential);
         assignDefaultRole(created);
-        eventRepository.save(buildEvent(EventType.USER_CREATED, created.getId(), actorUserId));
+        auditEventWriter.record(buildEvent(EventType.USER_CREATED, created.getId(), actorUserId));
         return created;
     }
 
@@ -79,7 +89,8 @@ public class UserServiceImpl implements UserService {
         credential.setPasswordHash(hashed);
         credential.setPasswordSalt(extractSalt(hashed));
         userCredentialRepository.save(credential);
-        eventRepository.save(buildEvent(EventType.USER_UPDATED, updated.getId(), actorUserId));
+        auditEventWriter.record(buildEvent(EventType.USER_UPDATED, updated.getId(), actorUserId));
+        eventPublisher.publishEvent(new UserChangedEvent(updated.getId()));
         return updated;
     }
 
@@ -87,9 +98,17 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         Long actorUserId = resolveActorUserId();
         User user = getUser(id);
-        user.setDeletedAt(LocalDateTime.now());
+        LocalDateTime deletedAt = LocalDateTime.now();
+        user.setDeletedAt(deletedAt);
         repository.save(user);
-        eventRepository.save(buildEvent(EventType.USER_DELETED, user.getId(), actorUserId));
+        auditEventWriter.record(buildEvent(EventType.USER_DELETED, user.getId(), actorUserId));
+        followService.removeAllFollowsOf(user.getId());
+        userTweetCascade.deleteTweetsOf(user.getId(), actorUserId, deletedAt);
+    }
+
+    public UserDeletionStatus getDeletionStatus(Long id) {
+        return userTweetCascade.getStatus(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No deletion recorded for user"));
     }
 
     private void validateCredentials(UserRequest request) {
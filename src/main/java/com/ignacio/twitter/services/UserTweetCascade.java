@@ -0,0 +1,246 @@
+package com.ignacio.twitter.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ignacio.twitter.configurations.UserDeletionConfig;
+import com.ignacio.twitter.configurations.UserDeletionProperties;
+import com.ignacio.twitter.dto.PendingUserDeletion;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserDeletionStatus;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.TweetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Soft deletes every live tweet of a deleted user in chunks of {@code users.deletion.chunk-size}.
+ * The first chunk runs inside the caller's transaction so small accounts disappear atomically
+ * with the user; anything beyond that continues on a background thread after commit, one
+ * transaction per chunk. A single {@link EventType#USER_TWEETS_DELETED} audit event is written
+ * once the cascade finishes instead of one per tweet.
+ *
+ * <p>Background work runs on the bounded {@link UserDeletionConfig#CASCADE_EXECUTOR} pool. Progress
+ * lives only in memory, so a periodic sweep looks for deleted users that still have live tweets
+ * (after a restart, a failed chunk or a full queue) and resumes them. Running jobs are kept until
+ * they settle; completed and failed ones stay visible to {@link #getStatus} for
+ * {@code users.deletion.status-retention} and are then dropped.
+ */
+@Service
+public class UserTweetCascade {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTweetCascade.class);
+    private static final String ENTITY_TYPE_USER = "user";
+
+    private final TweetRepository tweetRepository;
+    private final AuditEventWriter auditEventWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int sweepBatchSize;
+    private final Cache<Long, Job> jobs;
+
+    @Autowired
+    public UserTweetCascade(TweetRepository tweetRepository,
+                            AuditEventWriter auditEventWriter,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier(UserDeletionConfig.CASCADE_EXECUTOR) Executor executor,
+                            UserDeletionProperties properties) {
+        this(tweetRepository, auditEventWriter, eventPublisher, transactionManager, executor, properties,
+                Ticker.systemTicker());
+    }
+
+    UserTweetCascade(TweetRepository tweetRepository,
+                            AuditEventWriter auditEventWriter,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier(UserDeletionConfig.CASCADE_EXECUTOR) Executor executor,
+                            UserDeletionProperties properties,
+                            Ticker ticker) {
+        this.tweetRepository = tweetRepository;
+        this.auditEventWriter = auditEventWriter;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkSize = properties.chunkSize();
+        this.sweepBatchSize = properties.sweepBatchSize();
+        long retentionNanos = properties.statusRetention().toNanos();
+        this.jobs = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfter(new Expiry<Long, Job>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Job job, long currentTime) {
+                        return job.state == UserDeletionStatus.State.RUNNING ? Long.MAX_VALUE : retentionNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Job job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Job job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public UserDeletionStatus deleteTweetsOf(Long userId, Long actorUserId, LocalDateTime deletedAt) {
+        Job job = new Job(userId);
+        jobs.put(userId, job);
+        int deleted = deleteChunk(userId, deletedAt);
+        job.deleted.addAndGet(deleted);
+        boolean more = deleted == chunkSize;
+        if (!more) {
+            finish(job, actorUserId);
+        }
+        Runnable continuation = () -> submit(job, actorUserId, deletedAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        jobs.asMap().remove(userId, job);
+                    } else if (more) {
+                        continuation.run();
+                    }
+                }
+            });
+        } else if (more) {
+            continuation.run();
+        }
+        return job.snapshot();
+    }
+
+    public Optional<UserDeletionStatus> getStatus(Long userId) {
+        return Optional.ofNullable(jobs.getIfPresent(userId)).map(Job::snapshot);
+    }
+
+    @Scheduled(fixedDelayString = "${users.deletion.sweep-interval:5m}",
+            initialDelayString = "${users.deletion.sweep-initial-delay:1m}")
+    public void resumeUnfinished() {
+        for (PendingUserDeletion pending : tweetRepository.findDeletedAuthorsWithLiveTweets(sweepBatchSize)) {
+            Long userId = pending.userId();
+            Job current = jobs.getIfPresent(userId);
+            if (current != null && current.state == UserDeletionStatus.State.RUNNING) {
+                continue;
+            }
+            Job job = new Job(userId, current == null ? 0 : current.deleted.get());
+            boolean claimed = current == null
+                    ? jobs.asMap().putIfAbsent(userId, job) == null
+                    : jobs.asMap().replace(userId, current, job);
+            if (claimed) {
+                logger.info("Resuming cascading delete of tweets for user {}", userId);
+                submit(job, null, pending.deletedAt());
+            }
+        }
+    }
+
+    private void submit(Job job, Long actorUserId, LocalDateTime deletedAt) {
+        try {
+            executor.execute(() -> continueInBackground(job, actorUserId, deletedAt));
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Cascade pool is full; tweets of user {} are left for the next sweep", job.userId);
+            fail(job, ex);
+        }
+    }
+
+    void continueInBackground(Job job, Long actorUserId, LocalDateTime deletedAt) {
+        try {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> deleteChunk(job.userId, deletedAt));
+                job.deleted.addAndGet(deleted);
+            } while (deleted == chunkSize);
+            transactionTemplate.executeWithoutResult(status -> finish(job, actorUserId));
+            logger.info("Soft deleted {} tweets of user {}", job.deleted.get(), job.userId);
+        } catch (RuntimeException ex) {
+            logger.error("Cascading delete of tweets for user {} failed after {} tweets",
+                    job.userId, job.deleted.get(), ex);
+            fail(job, ex);
+        }
+    }
+
+    private int deleteChunk(Long userId, LocalDateTime deletedAt) {
+        List<TweetView> chunk = tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(userId, null, chunkSize);
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        tweetRepository.softDeleteByIdIn(chunk.stream().map(TweetView::id).toList(), deletedAt);
+        for (TweetView tweet : chunk) {
+            eventPublisher.publishEvent(new TweetChangedEvent(
+                    tweet.id(), userId, EventType.TWEET_DELETED, tweet.content(), null));
+        }
+        return chunk.size();
+    }
+
+    private void finish(Job job, Long actorUserId) {
+        auditEventWriter.record(Event.builder()
+                .eventType(EventType.USER_TWEETS_DELETED)
+                .entityType(ENTITY_TYPE_USER)
+                .entityId(job.userId)
+                .actorUserId(actorUserId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        job.state = UserDeletionStatus.State.COMPLETED;
+        settled(job);
+    }
+
+    private void fail(Job job, Throwable cause) {
+        job.fail(cause);
+        settled(job);
+    }
+
+    /** Re-puts a job that stopped running so its entry picks up the retention expiry. */
+    private void settled(Job job) {
+        jobs.asMap().replace(job.userId, job, job);
+    }
+
+    static final class Job {
+
+        private final Long userId;
+        private final AtomicLong deleted = new AtomicLong();
+        private volatile UserDeletionStatus.State state = UserDeletionStatus.State.RUNNING;
+        private volatile String error;
+
+        Job(Long userId) {
+            this(userId, 0);
+        }
+
+        Job(Long userId, long alreadyDeleted) {
+            this.userId = userId;
+            this.deleted.set(alreadyDeleted);
+        }
+
+        void fail(Throwable cause) {
+            error = cause.getMessage();
+            state = UserDeletionStatus.State.FAILED;
+        }
+
+        UserDeletionStatus snapshot() {
+            return new UserDeletionStatus(userId, state, deleted.get(), error);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+INSERT INTO roles (name) VALUES ('admin') ON CONFLICT DO NOTHING;
+INSERT INTO scopes (name) VALUES ('admin') ON CONFLICT DO NOTHING;
+INSERT INTO permitted_actions (action) VALUES ('tweet:export') ON CONFLICT DO NOTHING;
+
+INSERT INTO roles_to_scopes (role_id, scope_id)
+SELECT r.id, s.id
+FROM roles r, scopes s
+WHERE r.name = 'admin' AND s.name = 'admin'
+ON CONFLICT DO NOTHING;
+
+INSERT INTO scopes_to_permitted_actions (scope_id, permitted_action_id)
+SELECT s.id, p.id
+FROM scopes s
+JOIN permitted_actions p ON p.action = 'tweet:export'
+WHERE s.name = 'admin'
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,4 @@
+ALTER TABLE users ADD COLUMN follower_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET follower_count = (SELECT COUNT(*) FROM follows f WHERE f.followee_id = u.id);
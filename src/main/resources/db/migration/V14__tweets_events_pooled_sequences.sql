@@ -0,0 +1,2 @@
+ALTER SEQUENCE tweets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE events_id_seq INCREMENT BY 50;
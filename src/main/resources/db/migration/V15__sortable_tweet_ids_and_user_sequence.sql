@@ -0,0 +1,4 @@
+ALTER TABLE tweets ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE tweets_id_seq;
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
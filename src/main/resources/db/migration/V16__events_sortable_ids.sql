@@ -0,0 +1,2 @@
+ALTER TABLE events ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE events_id_seq;
@@ -0,0 +1,8 @@
+INSERT INTO permitted_actions (action) VALUES ('events:read') ON CONFLICT DO NOTHING;
+
+INSERT INTO scopes_to_permitted_actions (scope_id, permitted_action_id)
+SELECT s.id, p.id
+FROM scopes s
+JOIN permitted_actions p ON p.action = 'events:read'
+WHERE s.name = 'admin'
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,44 @@
+ALTER TABLE events RENAME TO events_unpartitioned;
+ALTER TABLE events_unpartitioned RENAME CONSTRAINT fk_events_actor_user TO fk_events_unpartitioned_actor_user;
+
+CREATE TABLE events (
+    id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    actor_user_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_events PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_events_actor_user FOREIGN KEY (actor_user_id) REFERENCES users(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_events_id ON events (id);
+
+CREATE TABLE events_default PARTITION OF events DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(bounds.first_month, bounds.last_month, INTERVAL '1 month')::DATE
+        FROM (
+            SELECT date_trunc('month', LEAST(COALESCE(MIN(created_at), NOW()), NOW())) AS first_month,
+                   date_trunc('month', NOW()) + INTERVAL '3 months' AS last_month
+            FROM events_unpartitioned
+        ) bounds
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE events_p%s PARTITION OF events FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+END
+$$;
+
+INSERT INTO events (id, event_type, entity_type, entity_id, actor_user_id, created_at)
+SELECT id, event_type, entity_type, entity_id, actor_user_id, created_at
+FROM events_unpartitioned;
+
+DROP TABLE events_unpartitioned;
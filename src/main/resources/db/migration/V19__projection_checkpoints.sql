@@ -0,0 +1,15 @@
+CREATE TABLE projection_checkpoints (
+    projection VARCHAR(100) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    events_processed BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO permitted_actions (action) VALUES ('events:replay') ON CONFLICT DO NOTHING;
+
+INSERT INTO scopes_to_permitted_actions (scope_id, permitted_action_id)
+SELECT s.id, p.id
+FROM scopes s
+JOIN permitted_actions p ON p.action = 'events:replay'
+WHERE s.name = 'admin'
+ON CONFLICT DO NOTHING;
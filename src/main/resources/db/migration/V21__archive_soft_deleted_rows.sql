@@ -0,0 +1,37 @@
+-- Live-row indexes: soft-deleted rows no longer bloat the indexes behind deleted_at IS NULL reads.
+-- idx_tweets_user_id stays complete because it backs the tweets -> users foreign key check when
+-- archived users are removed.
+DROP INDEX IF EXISTS idx_tweets_timestamp;
+CREATE INDEX idx_tweets_timestamp ON tweets(timestamp DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_live_id ON users(id) WHERE deleted_at IS NULL;
+
+-- Only soft-deleted rows, in deletion order, for the archiver.
+CREATE INDEX idx_tweets_deleted_at ON tweets(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_users_deleted_at ON users(deleted_at) WHERE deleted_at IS NOT NULL;
+
+CREATE TABLE tweets_archive (
+    id BIGINT PRIMARY KEY,
+    content VARCHAR(200) NOT NULL,
+    timestamp TIMESTAMP,
+    user_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_tweets_archive_user_id ON tweets_archive(user_id);
+
+CREATE TABLE users_archive (
+    id BIGINT PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    email VARCHAR(255) NOT NULL,
+    handle VARCHAR(255) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    follower_count BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- The audit log outlives the users it mentions; archived ids remain resolvable via users_archive.
+ALTER TABLE events DROP CONSTRAINT IF EXISTS fk_events_actor_user;
@@ -0,0 +1,31 @@
+-- Single-row counter bumped whenever role -> scope -> action mappings change, so every node can
+-- tell when its cached role permissions are stale with one primary key lookup.
+CREATE TABLE authorization_revision (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    revision BIGINT NOT NULL
+);
+
+INSERT INTO authorization_revision (id, revision) VALUES (1, 0);
+
+CREATE OR REPLACE FUNCTION bump_authorization_revision() RETURNS trigger AS $$
+BEGIN
+    UPDATE authorization_revision SET revision = revision + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_roles_authorization_revision
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON roles
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_authorization_revision();
+
+CREATE TRIGGER trg_roles_to_scopes_authorization_revision
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON roles_to_scopes
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_authorization_revision();
+
+CREATE TRIGGER trg_scopes_to_permitted_actions_authorization_revision
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON scopes_to_permitted_actions
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_authorization_revision();
+
+CREATE TRIGGER trg_permitted_actions_authorization_revision
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON permitted_actions
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_authorization_revision();
@@ -0,0 +1,10 @@
+-- User deletion now removes the user's follow edges. Edges left behind by earlier deletions kept
+-- those users out of the archive (see V21), so drop them and recount the followees they touched.
+DELETE FROM follows f
+USING users u
+WHERE u.deleted_at IS NOT NULL
+  AND u.id IN (f.follower_id, f.followee_id);
+
+UPDATE users u
+SET follower_count = (SELECT COUNT(*) FROM follows f WHERE f.followee_id = u.id)
+WHERE u.follower_count <> (SELECT COUNT(*) FROM follows f WHERE f.followee_id = u.id);
@@ -0,0 +1,8 @@
+-- One row per snowflake node id (0-31) currently held by a running instance. An instance claims
+-- a free or expired slot at startup and keeps renewing it, so no two live instances share a
+-- node id without anyone having to assign them by hand.
+CREATE TABLE id_node_leases (
+    node_id SMALLINT PRIMARY KEY CHECK (node_id BETWEEN 0 AND 31),
+    holder VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL
+);
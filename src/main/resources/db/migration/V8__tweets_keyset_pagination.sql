@@ -0,0 +1,5 @@
+UPDATE tweets SET timestamp = NOW() WHERE timestamp IS NULL;
+ALTER TABLE tweets ALTER COLUMN timestamp SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_tweets_timestamp;
+CREATE INDEX idx_tweets_timestamp ON tweets(timestamp DESC, id DESC);
@@ -0,0 +1 @@
+CREATE INDEX idx_tweets_user_id_timestamp ON tweets(user_id, timestamp DESC, id DESC) WHERE deleted_at IS NULL;
@@ -0,0 +1,105 @@
+package com.ignacio.twitter.auth;
+
+import com.ignacio.twitter.configurations.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void delegatesAndRecordsLatency() {
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), properties(1, 4, Duration.ofSeconds(5)), meterRegistry);
+        release.countDown();
+
+        String encoded = encoder.encode("secret");
+
+        assertThat(encoded).isEqualTo("hashed:secret");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.matches("other", encoded)).isFalse();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenSaturated() throws InterruptedException {
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), properties(1, 0, Duration.ofSeconds(5)), meterRegistry);
+        CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.encode("second"))
+                .isInstanceOfSatisfying(PasswordHashingUnavailableException.class, ex -> {
+                    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+                });
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(busy.join()).isEqualTo("hashed:first");
+    }
+
+    @Test
+    void givesUpOnQueuedHashAfterTimeoutButFinishesStartedOnes() throws InterruptedException {
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), properties(1, 1, Duration.ofMillis(200)), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.matches("second", "hashed:second"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1.0);
+
+        // The first hash has outlived queueTimeout too, but it had started, so it is not cancelled.
+        assertThat(running).isNotDone();
+        release.countDown();
+        assertThat(running.join()).isEqualTo("hashed:first");
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    private static PasswordHashingProperties properties(int threads, int queueCapacity, Duration queueTimeout) {
+        return new PasswordHashingProperties(threads, queueCapacity, queueTimeout, Duration.ofMillis(2500),
+                4, Duration.ofMillis(250), 4, 4);
+    }
+
+    private class PrefixEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ignacio.twitter.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void calibratePicksHighestStrengthWithinBudget() {
+        // 10ms at the probe cost doubles per step: 160ms at 12, 320ms at 13.
+        int strength = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(250), 10, 14,
+                cost -> Duration.ofMillis(10).toNanos() << (cost - CalibratedBCryptPasswordEncoder.PROBE_STRENGTH));
+
+        assertThat(strength).isEqualTo(12);
+    }
+
+    @Test
+    void calibrateStaysWithinBounds() {
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(250), 10, 14, cost -> 1_000_000_000L))
+                .isEqualTo(10);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(250), 10, 14, cost -> 1L))
+                .isEqualTo(14);
+    }
+
+    @Test
+    void upgradeEncodingFlagsOnlyWeakerHashes() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+        String current = encoder.encode("secret");
+        String older = new CalibratedBCryptPasswordEncoder(4).encode("secret");
+        String stronger = new CalibratedBCryptPasswordEncoder(6).encode("secret");
+
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+        assertThat(encoder.upgradeEncoding(older)).isTrue();
+        assertThat(encoder.upgradeEncoding(stronger)).isFalse();
+        assertThat(encoder.matches("secret", stronger)).isTrue();
+        assertThat(encoder.matches("secret", older)).isTrue();
+        assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ignacio.twitter.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PermissionChecksTest {
+
+    private final PermissionChecks checks = new PermissionChecks();
+
+    @Test
+    void tokenPrincipalIsCheckedAgainstMaskOnly() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, Permission.TWEET_READ.mask(), List.of());
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("user:write")));
+
+        assertThat(checks.has(authentication, "TWEET_READ")).isTrue();
+        assertThat(checks.has(authentication, "USER_WRITE")).isFalse();
+        assertThat(checks.any(authentication, "USER_READ", "TWEET_READ")).isTrue();
+        assertThat(checks.any(authentication, "USER_READ", "USER_WRITE")).isFalse();
+    }
+
+    @Test
+    void otherPrincipalsFallBackToAuthorities() {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken("ada", null, "user:write");
+
+        assertThat(checks.has(authentication, "USER_WRITE")).isTrue();
+        assertThat(checks.any(authentication, "TWEET_READ", "TWEET_WRITE")).isFalse();
+    }
+
+    @Test
+    void rejectsMissingAuthentication() {
+        assertThat(checks.has(null, "TWEET_READ")).isFalse();
+    }
+
+    @Test
+    void unknownPermissionNameFailsLoudly() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, Permission.TWEET_READ.mask(), List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> checks.has(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()), "TWEET_DELETE"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.ignacio.twitter.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionTest {
+
+    @Test
+    void maskRoundTripsKnownActions() {
+        long mask = Permission.maskOf(List.of("user:write", "tweet:read", "unknown:action"));
+
+        assertThat(mask).isEqualTo(Permission.TWEET_READ.mask() | Permission.USER_WRITE.mask());
+        assertThat(Permission.actionsOf(mask)).containsExactly("tweet:read", "user:write");
+    }
+
+    @Test
+    void unmappedKeepsActionsWithoutBit() {
+        assertThat(Permission.unmapped(List.of("tweet:read", "reports:read"))).containsExactly("reports:read");
+    }
+
+    @Test
+    void actionsOfIgnoresUnassignedBits() {
+        assertThat(Permission.actionsOf(Permission.EVENTS_REPLAY.mask() | (1L << 40)))
+                .containsExactly("events:replay");
+    }
+
+    @Test
+    void authenticatedUserChecksBitsAndNamedActions() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, List.of("tweet:write", "reports:read"));
+
+        assertThat(user.has(Permission.TWEET_WRITE)).isTrue();
+        assertThat(user.has(Permission.TWEET_READ)).isFalse();
+        assertThat(user.hasAction("tweet:write")).isTrue();
+        assertThat(user.hasAction("reports:read")).isTrue();
+        assertThat(user.hasAction("reports:write")).isFalse();
+        assertThat(user.actions()).containsExactly("tweet:write", "reports:read");
+    }
+}
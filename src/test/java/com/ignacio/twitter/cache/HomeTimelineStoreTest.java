@@ -0,0 +1,54 @@
+package com.ignacio.twitter.cache;
+
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.events.FollowChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HomeTimelineStoreTest {
+
+    private final HomeTimelineStore store = new HomeTimelineStore(
+            new TimelineProperties(100, 3, 100, Duration.ofMinutes(5), 1, 10), new SimpleMeterRegistry());
+
+    @Test
+    void push_ignoresTimelinesThatWereNeverRead() {
+        assertThat(store.push(1L, 10L)).isFalse();
+
+        assertThat(store.read(1L, id -> new long[]{5L}, null, 10)).containsExactly(5L);
+    }
+
+    @Test
+    void push_keepsNewestFirstAndTrimsToCapacity() {
+        store.read(1L, id -> new long[]{8L, 4L}, null, 10);
+
+        store.push(1L, 10L);
+        store.push(1L, 6L);
+        store.push(1L, 6L);
+        store.push(1L, 1L);
+
+        assertThat(store.read(1L, id -> new long[0], null, 10)).containsExactly(10L, 8L, 6L);
+    }
+
+    @Test
+    void read_pagesStrictlyBeforeCursor() {
+        store.read(2L, id -> new long[]{9L, 7L, 3L}, null, 1);
+
+        assertThat(store.read(2L, id -> new long[0], 9L, 1)).containsExactly(7L);
+        assertThat(store.read(2L, id -> new long[0], 7L, 5)).containsExactly(3L);
+        assertThat(store.read(2L, id -> new long[0], 3L, 5)).isEmpty();
+    }
+
+    @Test
+    void onFollowChanged_dropsFollowersMaterializedTimeline() {
+        store.read(3L, id -> new long[]{4L}, null, 10);
+
+        store.onFollowChanged(new FollowChangedEvent(3L, 9L, EventType.USER_FOLLOWED));
+
+        assertThat(store.read(3L, id -> new long[]{12L, 4L}, null, 10)).containsExactly(12L, 4L);
+    }
+}
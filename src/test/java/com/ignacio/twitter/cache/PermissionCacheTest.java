@@ -0,0 +1,89 @@
+package com.ignacio.twitter.cache;
+
+import com.ignacio.twitter.configurations.PermissionCacheProperties;
+import com.ignacio.twitter.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionCacheTest {
+
+    @Mock
+    private AuthorizationRepository authorizationRepository;
+
+    @Test
+    void actionsForUser_delegatesToJoinWhenDisabled() {
+        PermissionCache cache = cache(false);
+        when(authorizationRepository.findPermittedActionsByUserId(1L)).thenReturn(List.of("tweet:read"));
+
+        assertThat(cache.actionsForUser(1L)).containsExactly("tweet:read");
+        verify(authorizationRepository, never()).findActionsByRoleId();
+    }
+
+    @Test
+    void actionsForUser_resolvesRolesFromLoadedMap() {
+        PermissionCache cache = cache(true);
+        when(authorizationRepository.findRevision()).thenReturn(3L);
+        when(authorizationRepository.findActionsByRoleId()).thenReturn(Map.of(
+                10L, List.of("tweet:write", "tweet:read"),
+                11L, List.of("tweet:read", "user:read")));
+        when(authorizationRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(10L, 11L));
+        when(authorizationRepository.findRoleIdsByUserId(2L)).thenReturn(List.of(11L));
+
+        assertThat(cache.actionsForUser(1L)).containsExactly("tweet:read", "tweet:write", "user:read");
+        assertThat(cache.actionsForUser(2L)).containsExactly("tweet:read", "user:read");
+        verify(authorizationRepository, times(1)).findActionsByRoleId();
+        verify(authorizationRepository, never()).findPermittedActionsByUserId(1L);
+    }
+
+    @Test
+    void actionsForUser_reloadsWhenRoleIsUnknown() {
+        PermissionCache cache = cache(true);
+        when(authorizationRepository.findRevision()).thenReturn(1L);
+        when(authorizationRepository.findActionsByRoleId()).thenReturn(
+                Map.of(10L, List.of("tweet:read")),
+                Map.of(10L, List.of("tweet:read"), 12L, List.of("events:read")));
+        when(authorizationRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(10L));
+        when(authorizationRepository.findRoleIdsByUserId(2L)).thenReturn(List.of(12L));
+
+        cache.actionsForUser(1L);
+
+        assertThat(cache.actionsForUser(2L)).containsExactly("events:read");
+        verify(authorizationRepository, times(2)).findActionsByRoleId();
+    }
+
+    @Test
+    void refreshIfChanged_reloadsOnlyWhenRevisionMoves() {
+        PermissionCache cache = cache(true);
+        when(authorizationRepository.findRevision()).thenReturn(5L, 5L, 6L, 6L);
+        when(authorizationRepository.findActionsByRoleId()).thenReturn(
+                Map.of(10L, List.of("tweet:read")),
+                Map.of(10L, List.of("tweet:read", "tweet:write")));
+        when(authorizationRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(10L));
+
+        assertThat(cache.actionsForUser(1L)).containsExactly("tweet:read");
+        cache.refreshIfChanged();
+        assertThat(cache.actionsForUser(1L)).containsExactly("tweet:read");
+        cache.refreshIfChanged();
+
+        assertThat(cache.actionsForUser(1L)).containsExactly("tweet:read", "tweet:write");
+        verify(authorizationRepository, times(2)).findActionsByRoleId();
+    }
+
+    private PermissionCache cache(boolean enabled) {
+        return new PermissionCache(authorizationRepository, new PermissionCacheProperties(enabled),
+                new SimpleMeterRegistry());
+    }
+}
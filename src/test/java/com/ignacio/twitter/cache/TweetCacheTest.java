@@ -0,0 +1,134 @@
+package com.ignacio.twitter.cache;
+
+import com.ignacio.twitter.configurations.TweetCacheProperties;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.events.UserChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TweetCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TweetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TweetCache(
+                new TweetCacheProperties(100, Duration.ofMinutes(1), Duration.ofSeconds(5)),
+                meterRegistry);
+    }
+
+    @Test
+    void get_loadsOnceAndRecordsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+        TweetView view = new TweetView(1L, "hello", LocalDateTime.now(), new UserSummary(2L, "ada"), 0L, 0L);
+
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(view);
+        });
+        Optional<TweetView> cached = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(view);
+        });
+
+        assertThat(cached).contains(view);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tweets").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tweets").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onUserChanged_dropsOnlyThatAuthorsViews() {
+        TweetView renamed = new TweetView(1L, "a", LocalDateTime.now(), new UserSummary(2L, "ada"), 0L, 0L);
+        TweetView other = new TweetView(2L, "b", LocalDateTime.now(), new UserSummary(3L, "grace"), 0L, 0L);
+        cache.get(1L, id -> Optional.of(renamed));
+        cache.get(2L, id -> Optional.of(other));
+
+        cache.onUserChanged(new UserChangedEvent(2L));
+
+        assertThat(cache.getAllPresent(List.of(1L, 2L))).containsOnlyKeys(2L);
+    }
+
+    @Test
+    void get_cachesNegativeLookups() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(3L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<TweetView> second = cache.get(3L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(second).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void onTweetChanged_invalidatesPositiveAndNegativeEntries() {
+        TweetView view = new TweetView(4L, "old", LocalDateTime.now(), new UserSummary(2L, "ada"), 0L, 0L);
+        cache.get(4L, id -> Optional.of(view));
+        cache.get(5L, id -> Optional.empty());
+
+        cache.onTweetChanged(new TweetChangedEvent(4L, 2L, EventType.TWEET_UPDATED));
+        cache.onTweetChanged(new TweetChangedEvent(5L, 2L, EventType.TWEET_CREATED));
+
+        TweetView fresh = new TweetView(4L, "new", LocalDateTime.now(), new UserSummary(2L, "ada"), 0L, 0L);
+        assertThat(cache.get(4L, id -> Optional.of(fresh))).contains(fresh);
+        assertThat(cache.get(5L, id -> Optional.of(fresh))).contains(fresh);
+    }
+
+    @Test
+    void invalidate_duringMissingLookupDoesNotLeaveStaleNegativeEntry() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<TweetView>> lookup = CompletableFuture.supplyAsync(() -> cache.get(6L, id -> {
+            loading.countDown();
+            await(release);
+            return Optional.empty();
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread invalidator = new Thread(() -> cache.invalidate(6L));
+        invalidator.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (invalidator.getState() != Thread.State.BLOCKED && invalidator.isAlive()
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        invalidator.join(5_000);
+
+        assertThat(lookup.get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(cache.isKnownMissing(6L)).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
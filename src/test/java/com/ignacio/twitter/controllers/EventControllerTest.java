@@ -0,0 +1,50 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.services.EventStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EventController.class)
+@Import(SecurityConfig.class)
+class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EventStreamService eventStreamService;
+
+    @Test
+    @WithMockUser(authorities = "events:read")
+    void streamEvents_resumesFromLastEventId() throws Exception {
+        when(eventStreamService.subscribe(42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/events/stream").header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(eventStreamService).subscribe(42L);
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void streamEvents_requiresEventsAuthority() throws Exception {
+        mockMvc.perform(get("/events/stream"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(eventStreamService);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.services.FollowService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(FollowController.class)
+@Import(SecurityConfig.class)
+class FollowControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FollowService followService;
+
+    @Test
+    @WithMockUser(authorities = "user:write")
+    void follow_returnsNoContent() throws Exception {
+        mockMvc.perform(post("/users/7/follow"))
+                .andExpect(status().isNoContent());
+
+        verify(followService).follow(7L);
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:write")
+    void unfollow_returnsNoContent() throws Exception {
+        mockMvc.perform(delete("/users/7/follow"))
+                .andExpect(status().isNoContent());
+
+        verify(followService).unfollow(7L);
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void follow_requiresWriteAuthority() throws Exception {
+        mockMvc.perform(post("/users/7/follow"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(followService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void listFollowers_returnsPageWithNextCursor() throws Exception {
+        IdCursor next = new IdCursor(4L);
+        when(followService.listFollowers(eq(7L), eq(20), isNull()))
+                .thenReturn(new CursorPage<>(List.of(new UserSummary(4L, "ada")), next.encode()));
+
+        mockMvc.perform(get("/users/7/followers"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next.encode()))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[0].handle").value("ada"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void listFollowing_decodesCursor() throws Exception {
+        IdCursor cursor = new IdCursor(9L);
+        when(followService.listFollowing(eq(7L), eq(5), eq(cursor)))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/users/7/following").param("limit", "5").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void isFollowing_mapsToNoContentOrNotFound() throws Exception {
+        when(followService.isFollowing(7L, 8L)).thenReturn(true);
+        when(followService.isFollowing(7L, 9L)).thenReturn(false);
+
+        mockMvc.perform(get("/users/7/following/8"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/users/7/following/9"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.dto.ReplayStatus;
+import com.ignacio.twitter.services.ReplayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReplayController.class)
+@Import(SecurityConfig.class)
+class ReplayControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReplayService replayService;
+
+    @Test
+    @WithMockUser(authorities = "events:replay")
+    void startReplay_returnsAccepted() throws Exception {
+        when(replayService.startReplay("follower-counts", true)).thenReturn(
+                new ReplayStatus("follower-counts", ReplayStatus.State.RUNNING, 0, 0, 0, null));
+
+        mockMvc.perform(post("/admin/replays/follower-counts").param("reset", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "events:replay")
+    void getStatus_reportsThroughput() throws Exception {
+        when(replayService.getStatus("follower-counts")).thenReturn(
+                new ReplayStatus("follower-counts", ReplayStatus.State.COMPLETED, 5000, 77, 2500.0, null));
+
+        mockMvc.perform(get("/admin/replays/follower-counts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventsProcessed").value(5000))
+                .andExpect(jsonPath("$.eventsPerSecond").value(2500.0));
+    }
+
+    @Test
+    @WithMockUser(authorities = "events:replay")
+    void startReplay_unknownProjection_returnsNotFound() throws Exception {
+        when(replayService.startReplay("nope", false))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Projection not found"));
+
+        mockMvc.perform(post("/admin/replays/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = "events:read")
+    void replay_requiresReplayAuthority() throws Exception {
+        mockMvc.perform(post("/admin/replays/follower-counts"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(replayService);
+    }
+}
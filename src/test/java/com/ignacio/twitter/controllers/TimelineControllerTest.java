@@ -0,0 +1,84 @@
+package com.ignacio.twitter.controllers;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.auth.Permission;
+import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.services.TimelineService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TimelineController.class)
+@Import(SecurityConfig.class)
+class TimelineControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TimelineService timelineService;
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void homeTimeline_returnsPage() throws Exception {
+        IdCursor cursor = new IdCursor(40L);
+        TweetView tweet = new TweetView(39L, "hi", LocalDateTime.now(), new UserSummary(2L, "ada"), 0L, 0L);
+        when(timelineService.homeTimeline(eq(10), eq(cursor)))
+                .thenReturn(new CursorPage<>(List.of(tweet), new IdCursor(39L).encode()));
+
+        mockMvc.perform(get("/timeline/home").param("limit", "10").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new IdCursor(39L).encode()))
+                .andExpect(jsonPath("$[0].id").value(39))
+                .andExpect(jsonPath("$[0].author.handle").value("ada"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void homeTimeline_requiresTweetAuthority() throws Exception {
+        mockMvc.perform(get("/timeline/home"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void homeTimeline_authorizesTokenPrincipalFromPermissionMask() throws Exception {
+        when(timelineService.homeTimeline(anyInt(), any()))
+                .thenReturn(new CursorPage<>(List.of(), null));
+        AuthenticatedUser principal = new AuthenticatedUser(10L, Permission.TWEET_WRITE.mask(), List.of());
+
+        mockMvc.perform(get("/timeline/home")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void homeTimeline_rejectsTokenPrincipalWithoutTweetBits() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(10L, Permission.USER_READ.mask(), List.of());
+
+        mockMvc.perform(get("/timeline/home")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()))))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,10 +1,23 @@
 package com.ignacio.twitter.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetBatchAction;
+import com.ignacio.twitter.dto.TweetBatchOperation;
+import com.ignacio.twitter.dto.TweetBatchRequest;
+import com.ignacio.twitter.dto.TweetBatchResponse;
+import com.ignacio.twitter.dto.TweetBatchResult;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetLookupResponse;
+import com.ignacio.twitter.dto.TweetView;
 import com.ignacio.twitter.dto.TweetRequest;
+import com.ignacio.twitter.dto.UserSummary;
 import com.ignacio.twitter.models.Tweet;
 import com.ignacio.twitter.models.User;
 import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.services.TweetSearchService;
 import com.ignacio.twitter.services.TweetService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,21 +25,33 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TweetController.class)
@@ -42,6 +67,9 @@ class TweetControllerTest {
     @MockitoBean
     private TweetService tweetService;
 
+    @MockitoBean
+    private TweetSearchService tweetSearchService;
+
     @Test
     @WithMockUser(authorities = "tweet:read")
     void listTweets_returnsTweets() throws Exception {
@@ -58,15 +86,81 @@ class TweetControllerTest {
                 .author(author)
                 .timestamp(LocalDateTime.now())
                 .build();
-        when(tweetService.listTweets()).thenReturn(List.of(tweet));
+        when(tweetService.listTweets(eq(20), isNull())).thenReturn(new CursorPage<>(List.of(TweetView.from(tweet)), null));
 
         mockMvc.perform(get("/tweets"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(10))
                 .andExpect(jsonPath("$[0].content").value("hello"))
                 .andExpect(jsonPath("$[0].author.id").value(1));
     }
 
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void listTweets_clampsLimitAndReturnsNextCursor() throws Exception {
+        TweetCursor cursor = new TweetCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 42L);
+        TweetCursor next = new TweetCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 7L);
+        when(tweetService.listTweets(eq(100), eq(cursor)))
+                .thenReturn(new CursorPage<>(List.of(), next.encode()));
+
+        mockMvc.perform(get("/tweets")
+                        .param("limit", "5000")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next.encode()));
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void listTweets_rejectsInvalidCursorAndLimit() throws Exception {
+        mockMvc.perform(get("/tweets").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/tweets").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void lookupTweets_returnsTweetsAndMissingIds() throws Exception {
+        TweetView tweet = new TweetView(3L, "third", LocalDateTime.now(), new UserSummary(1L, "ada"), 0L, 0L);
+        when(tweetService.lookupTweets(List.of(3L, 99L)))
+                .thenReturn(new TweetLookupResponse(List.of(tweet), List.of(99L)));
+
+        mockMvc.perform(get("/tweets").param("ids", "3,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tweets[0].id").value(3))
+                .andExpect(jsonPath("$.tweets[0].author.handle").value("ada"))
+                .andExpect(jsonPath("$.missingIds[0]").value(99));
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void lookupTweets_rejectsTooManyIds() throws Exception {
+        String ids = String.join(",", LongStream.rangeClosed(1, 101)
+                .mapToObj(Long::toString)
+                .toList());
+
+        mockMvc.perform(get("/tweets").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(tweetService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void searchTweets_returnsMatchesWithNextCursor() throws Exception {
+        TweetView match = new TweetView(30L, "spring boot tips", LocalDateTime.now(), new UserSummary(1L, "ada"), 0L, 0L);
+        when(tweetSearchService.searchTweets(eq("spring boot"), eq(20), isNull()))
+                .thenReturn(new CursorPage<>(List.of(match), new IdCursor(30L).encode()));
+
+        mockMvc.perform(get("/tweets/search").param("q", "spring boot"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new IdCursor(30L).encode()))
+                .andExpect(jsonPath("$[0].id").value(30));
+    }
+
     @Test
     @WithMockUser(authorities = "tweet:read")
     void getTweet_returnsTweet() throws Exception {
@@ -76,6 +170,7 @@ class TweetControllerTest {
                 .lastName("Lovelace")
                 .email("ada@lovelace.com")
                 .handle("adal")
+                .version(3L)
                 .build();
         Tweet tweet = Tweet.builder()
                 .id(11L)
@@ -83,12 +178,41 @@ class TweetControllerTest {
                 .author(author)
                 .timestamp(LocalDateTime.now())
                 .build();
-        when(tweetService.getTweet(11L)).thenReturn(tweet);
+        when(tweetService.getTweet(11L)).thenReturn(TweetView.from(tweet));
 
         mockMvc.perform(get("/tweets/11"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"11.0.3\""))
                 .andExpect(jsonPath("$.id").value(11))
-                .andExpect(jsonPath("$.author.id").value(2));
+                .andExpect(jsonPath("$.author.id").value(2))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void getTweet_matchingETag_returnsNotModified() throws Exception {
+        TweetView tweet = new TweetView(12L, "cached", LocalDateTime.now(), new UserSummary(2L, "adal"), 4L, 1L);
+        when(tweetService.getTweet(12L)).thenReturn(tweet);
+
+        mockMvc.perform(get("/tweets/12").header("If-None-Match", "\"12.4.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/tweets/12").header("If-None-Match", "\"12.3.1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12.4.1\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void getTweet_authorChangeInvalidatesETag() throws Exception {
+        TweetView tweet = new TweetView(12L, "cached", LocalDateTime.now(), new UserSummary(2L, "renamed"), 4L, 2L);
+        when(tweetService.getTweet(12L)).thenReturn(tweet);
+
+        mockMvc.perform(get("/tweets/12").header("If-None-Match", "\"12.4.1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.handle").value("renamed"))
+                .andExpect(header().string("ETag", "\"12.4.2\""));
     }
 
     @Test
@@ -108,7 +232,7 @@ class TweetControllerTest {
                 .author(author)
                 .timestamp(LocalDateTime.now())
                 .build();
-        when(tweetService.createTweet(any(TweetRequest.class))).thenReturn(tweet);
+        when(tweetService.createTweet(any(TweetRequest.class))).thenReturn(TweetView.from(tweet));
 
         mockMvc.perform(post("/tweets")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -135,25 +259,85 @@ class TweetControllerTest {
                 .author(author)
                 .timestamp(LocalDateTime.now())
                 .build();
-        when(tweetService.updateTweet(eq(13L), any(TweetRequest.class))).thenReturn(tweet);
+        tweet.setVersion(3L);
+        when(tweetService.updateTweet(eq(13L), any(TweetRequest.class), eq(2L))).thenReturn(TweetView.from(tweet));
 
         mockMvc.perform(put("/tweets/13")
+                        .header(HttpHeaders.IF_MATCH, "\"13.2.0\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"13.3.0\""))
                 .andExpect(jsonPath("$.content").value("updated"))
                 .andExpect(jsonPath("$.author.id").value(4));
     }
 
+    @Test
+    @WithMockUser(authorities = "tweet:write")
+    void updateTweet_rejectsIfMatchForAnotherTweet() throws Exception {
+        mockMvc.perform(put("/tweets/13")
+                        .header(HttpHeaders.IF_MATCH, "\"12.2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TweetRequest("updated", 4L))))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(tweetService);
+    }
+
     @Test
     @WithMockUser(authorities = "tweet:write")
     void deleteTweet_returnsNoContent() throws Exception {
-        doNothing().when(tweetService).deleteTweet(eq(14L));
+        doNothing().when(tweetService).deleteTweet(eq(14L), isNull());
 
         mockMvc.perform(delete("/tweets/14"))
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser(authorities = "tweet:write")
+    void applyBatch_returnsPerItemResults() throws Exception {
+        TweetBatchRequest request = new TweetBatchRequest(List.of(
+                new TweetBatchOperation(TweetBatchAction.CREATE, null, "hello", 3L, null),
+                new TweetBatchOperation(TweetBatchAction.DELETE, 99L, null, null, null)));
+        when(tweetService.applyBatch(request.operations())).thenReturn(new TweetBatchResponse(List.of(
+                TweetBatchResult.success(0, HttpStatus.CREATED, 40L),
+                TweetBatchResult.failure(1, HttpStatus.NOT_FOUND, 99L, "Tweet not found"))));
+
+        mockMvc.perform(post("/tweets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].id").value(40))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[1].error").value("Tweet not found"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:write")
+    void applyBatch_rejectsEmptyOrMalformedOperations() throws Exception {
+        mockMvc.perform(post("/tweets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/tweets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"id\":1}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(tweetService);
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void applyBatch_requiresWriteAuthority() throws Exception {
+        mockMvc.perform(post("/tweets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"DELETE\",\"id\":1}]}"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(authorities = "tweet:write")
     void createTweet_validationError() throws Exception {
@@ -164,4 +348,38 @@ class TweetControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithMockUser(authorities = "tweet:export")
+    @SuppressWarnings("unchecked")
+    void exportTweets_streamsNewlineDelimitedJson() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 6, 1, 8, 30);
+        doAnswer(invocation -> {
+            Consumer<TweetExportRow> sink = invocation.getArgument(0);
+            sink.accept(new TweetExportRow(1L, "first", timestamp, 7L, null));
+            sink.accept(new TweetExportRow(2L, "second", timestamp, 8L, timestamp));
+            return null;
+        }).when(tweetService).exportTweets(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/tweets/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"content\":\"first\",\"timestamp\":\"2024-06-01T08:30:00\",\"authorId\":7,\"deletedAt\":null}\n"
+                                + "{\"id\":2,\"content\":\"second\",\"timestamp\":\"2024-06-01T08:30:00\",\"authorId\":8,"
+                                + "\"deletedAt\":\"2024-06-01T08:30:00\"}\n"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void exportTweets_requiresExportAuthority() throws Exception {
+        mockMvc.perform(get("/tweets/export"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(tweetService);
+    }
 }
@@ -1,9 +1,15 @@
 package com.ignacio.twitter.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserDeletionStatus;
 import com.ignacio.twitter.dto.UserRequest;
+import com.ignacio.twitter.models.Tweet;
 import com.ignacio.twitter.models.User;
 import com.ignacio.twitter.configurations.SecurityConfig;
+import com.ignacio.twitter.services.TweetService;
 import com.ignacio.twitter.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,16 +20,22 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +52,9 @@ class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private TweetService tweetService;
+
     @Test
     @WithMockUser(authorities = "user:read")
     void listUsers_returnsUsers() throws Exception {
@@ -68,12 +83,48 @@ class UserControllerTest {
                 .email("ada@lovelace.com")
                 .handle("adal")
                 .build();
+        when(userService.getUserVersion(2L)).thenReturn(3L);
         when(userService.getUser(2L)).thenReturn(user);
 
         mockMvc.perform(get("/users/2"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2.3\""))
                 .andExpect(jsonPath("$.id").value(2))
-                .andExpect(jsonPath("$.handle").value("adal"));
+                .andExpect(jsonPath("$.handle").value("adal"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "user:read")
+    void getUser_matchingETag_returnsNotModifiedWithoutLoadingUser() throws Exception {
+        when(userService.getUserVersion(2L)).thenReturn(3L);
+
+        mockMvc.perform(get("/users/2").header("If-None-Match", "\"2.3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUser(2L);
+    }
+
+    @Test
+    @WithMockUser(authorities = "tweet:read")
+    void listUserTweets_returnsAuthorTimelinePage() throws Exception {
+        User author = User.builder().id(6L).email("ada@lovelace.com").handle("adal").build();
+        Tweet tweet = Tweet.builder()
+                .id(60L)
+                .content("profile")
+                .author(author)
+                .timestamp(LocalDateTime.of(2024, 2, 2, 2, 2))
+                .build();
+        String next = new TweetCursor(tweet.getTimestamp(), tweet.getId()).encode();
+        when(tweetService.listTweetsByAuthor(eq(6L), eq(1), isNull()))
+                .thenReturn(new CursorPage<>(List.of(TweetView.from(tweet)), next));
+
+        mockMvc.perform(get("/users/6/tweets").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next))
+                .andExpect(jsonPath("$[0].id").value(60))
+                .andExpect(jsonPath("$[0].author.id").value(6));
     }
 
     @Test
@@ -125,6 +176,18 @@ class UserControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser(authorities = "user:write")
+    void getDeletionStatus_reportsProgress() throws Exception {
+        when(userService.getDeletionStatus(5L))
+                .thenReturn(new UserDeletionStatus(5L, UserDeletionStatus.State.RUNNING, 2000, null));
+
+        mockMvc.perform(get("/users/5/deletion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.tweetsDeleted").value(2000));
+    }
+
     @Test
     void createUser_validationError() throws Exception {
         UserRequest request = new UserRequest("Ignacio", "Gomez", "", "", "", "");
@@ -0,0 +1,111 @@
+package com.ignacio.twitter.events;
+
+import com.ignacio.twitter.configurations.EventStreamProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.models.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void publish_deliversToStartedSubscribersInOrder() throws Exception {
+        EventBroadcaster broadcaster = broadcaster(16, 10);
+        RecordingEmitter emitter = new RecordingEmitter(2, new CountDownLatch(0));
+        broadcaster.subscribe(emitter).start();
+
+        broadcaster.publish(message(1L));
+        broadcaster.publish(message(2L));
+
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.ids).containsExactly("1", "2");
+    }
+
+    @Test
+    void subscription_buffersWhileReplayingAndSkipsReplayedEvents() throws Exception {
+        EventBroadcaster broadcaster = broadcaster(16, 10);
+        RecordingEmitter emitter = new RecordingEmitter(3, new CountDownLatch(0));
+        EventBroadcaster.Subscription subscription = broadcaster.subscribe(emitter);
+
+        broadcaster.publish(message(2L));
+        broadcaster.publish(message(3L));
+        subscription.replay(List.of(message(1L), message(2L)));
+        subscription.start();
+
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.ids).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void publish_evictsSubscriberWhoseBufferOverflows() throws Exception {
+        EventBroadcaster broadcaster = broadcaster(2, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(1, release);
+        broadcaster.subscribe(stuck).start();
+
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.publish(message(id));
+        }
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(meterRegistry.counter("events.stream.evicted").count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void subscribe_rejectsSubscribersBeyondTheLimit() {
+        EventBroadcaster broadcaster = broadcaster(16, 1);
+
+        assertThat(broadcaster.subscribe(new SseEmitter())).isNotNull();
+        assertThat(broadcaster.subscribe(new SseEmitter())).isNull();
+    }
+
+    private EventBroadcaster broadcaster(int bufferSize, int maxSubscribers) {
+        EventStreamProperties properties = new EventStreamProperties(EventStreamProperties.Relay.LOCAL,
+                "twitter_events", bufferSize, maxSubscribers, 100, Duration.ofSeconds(5),
+                Duration.ofMinutes(1));
+        return new EventBroadcaster(properties, meterRegistry);
+    }
+
+    private EventMessage message(Long id) {
+        return new EventMessage(id, EventType.TWEET_CREATED, "tweet", id, 1L, LocalDateTime.now());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sent;
+        private final CountDownLatch release;
+
+        private RecordingEmitter(int expected, CountDownLatch release) {
+            this.sent = new CountDownLatch(expected);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            String head = builder.build().iterator().next().getData().toString();
+            ids.add(head.substring("id:".length(), head.indexOf('\n')));
+            sent.countDown();
+        }
+    }
+}
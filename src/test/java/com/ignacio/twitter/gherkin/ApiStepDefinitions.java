@@ -329,6 +329,7 @@ public class ApiStepDefinitions {
             entityManager.createNativeQuery("delete from permitted_actions").executeUpdate();
             entityManager.createNativeQuery("delete from scopes").executeUpdate();
             entityManager.createNativeQuery("delete from roles").executeUpdate();
+            entityManager.createNativeQuery("delete from follows").executeUpdate();
             entityManager.createNativeQuery("delete from tweets").executeUpdate();
             entityManager.createNativeQuery("delete from user_credentials").executeUpdate();
             entityManager.createNativeQuery("delete from events").executeUpdate();
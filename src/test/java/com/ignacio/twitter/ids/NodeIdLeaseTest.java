@@ -0,0 +1,91 @@
+package com.ignacio.twitter.ids;
+
+import com.ignacio.twitter.configurations.IdProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NodeIdLeaseTest {
+
+    private static final String HOLDER = "host-1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void acquire_usesTheConfiguredNodeIdWithoutLeasing() {
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, properties(7, true), HOLDER);
+
+        lease.acquire();
+        lease.renew();
+        lease.release();
+
+        assertThat(lease.nodeId()).isEqualTo(7);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void acquire_failsWhenNeitherANodeIdNorLeasingIsConfigured() {
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, properties(null, false), HOLDER);
+
+        assertThatThrownBy(lease::acquire)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("twitter.ids.node-id");
+    }
+
+    @Test
+    void acquire_retriesWhenAnotherInstanceWinsTheSameSlot() {
+        when(jdbcTemplate.queryForList(startsWith("insert into id_node_leases"), eq(Integer.class), eq(HOLDER), any()))
+                .thenReturn(List.of(), List.of(4));
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, properties(null, true), HOLDER);
+
+        lease.acquire();
+
+        assertThat(lease.nodeId()).isEqualTo(4);
+    }
+
+    @Test
+    void acquire_failsWhenEverySlotIsHeld() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(HOLDER), any())).thenReturn(List.of());
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, properties(null, true), HOLDER);
+
+        assertThatThrownBy(lease::acquire).isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, times(SnowflakeIds.MAX_NODE_ID + 1))
+                .queryForList(anyString(), eq(Integer.class), eq(HOLDER), any());
+    }
+
+    @Test
+    void renew_reclaimsAnExpiredLeaseAndReleaseDeletesIt() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(HOLDER), any())).thenReturn(List.of(2));
+        when(jdbcTemplate.update(startsWith("update id_node_leases"), any(), eq(2), eq(HOLDER))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("insert into id_node_leases"), eq(2), eq(HOLDER), any())).thenReturn(1);
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, properties(null, true), HOLDER);
+        lease.acquire();
+
+        lease.renew();
+        lease.release();
+
+        verify(jdbcTemplate).update("delete from id_node_leases where node_id = ? and holder = ?", 2, HOLDER);
+    }
+
+    private static IdProperties properties(Integer nodeId, boolean lease) {
+        return new IdProperties(nodeId, lease, Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+}
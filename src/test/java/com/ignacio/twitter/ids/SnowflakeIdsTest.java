@@ -0,0 +1,90 @@
+package com.ignacio.twitter.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdsTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void next_encodesTimestampAndNode() {
+        SnowflakeIds ids = new SnowflakeIds(7, () -> NOW);
+
+        long id = ids.next();
+
+        assertThat(SnowflakeIds.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(SnowflakeIds.nodeOf(id)).isEqualTo(7);
+        assertThat(id).isLessThan(1L << 53);
+    }
+
+    @Test
+    void firstIdAt_boundsEveryIdIssuedFromThatMillisecond() {
+        long id = new SnowflakeIds(31, () -> NOW).next();
+
+        assertThat(SnowflakeIds.firstIdAt(Instant.ofEpochMilli(NOW))).isLessThanOrEqualTo(id);
+        assertThat(SnowflakeIds.firstIdAt(Instant.ofEpochMilli(NOW + 1))).isGreaterThan(id);
+        assertThat(SnowflakeIds.firstIdAt(SnowflakeIds.EPOCH.minusSeconds(1))).isZero();
+    }
+
+    @Test
+    void next_isStrictlyIncreasingWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIds ids = new SnowflakeIds(1, clock::get);
+
+        long previous = -1;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 300 == 0) {
+                clock.incrementAndGet();
+            }
+            long id = ids.next();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_keepsIncreasingWhenClockStepsBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIds ids = new SnowflakeIds(2, clock::get);
+        long before = ids.next();
+
+        clock.addAndGet(-5_000);
+
+        assertThat(ids.next()).isGreaterThan(before);
+    }
+
+    @Test
+    void idsFromLaterMillisecondsSortAfterOtherNodes() {
+        SnowflakeIds busyNode = new SnowflakeIds(31, () -> NOW);
+        SnowflakeIds quietNode = new SnowflakeIds(0, () -> NOW + 1);
+
+        long early = busyNode.next();
+
+        assertThat(quietNode.next()).isGreaterThan(early);
+    }
+
+    @Test
+    void next_isUniqueUnderConcurrency() {
+        SnowflakeIds ids = new SnowflakeIds(3);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 20_000).parallel().forEach(i -> seen.add(ids.next()));
+
+        assertThat(seen).hasSize(20_000);
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTheNodeBits() {
+        assertThatThrownBy(() -> new SnowflakeIds(32)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIds(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,215 @@
+package com.ignacio.twitter.middleware;
+
+import com.ignacio.twitter.configurations.IdempotencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        IdempotencyProperties properties = new IdempotencyProperties(
+                IdempotencyProperties.Store.MEMORY, Duration.ofHours(1), 100, Duration.ofSeconds(5));
+        filter = new IdempotencyFilter(new InMemoryIdempotencyStore(properties, new SimpleMeterRegistry()),
+                properties.waitTimeout());
+    }
+
+    @Test
+    void replaysStoredResponseWithoutRunningChainAgain() throws ServletException, IOException {
+        MockHttpServletResponse first = perform(post("key-1", "{\"content\":\"hi\"}"), createdChain());
+        MockHttpServletResponse second = perform(post("key-1", "{\"content\":\"hi\"}"), createdChain());
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(second.getStatus()).isEqualTo(201);
+        assertThat(second.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void rejectsReusedKeyWithDifferentBody() throws ServletException, IOException {
+        perform(post("key-1", "{\"content\":\"hi\"}"), createdChain());
+        MockHttpServletResponse second = perform(post("key-1", "{\"content\":\"bye\"}"), createdChain());
+
+        assertThat(executions).hasValue(1);
+        assertThat(second.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void passesThroughWithoutHeader() throws ServletException, IOException {
+        perform(post(null, "{}"), createdChain());
+        perform(post(null, "{}"), createdChain());
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void rejectsOverlongKey() throws ServletException, IOException {
+        MockHttpServletResponse response = perform(post("k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1), "{}"),
+                createdChain());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void doesNotStoreServerErrors() throws ServletException, IOException {
+        FilterChain failing = (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(503);
+        };
+        perform(post("key-1", "{}"), failing);
+        MockHttpServletResponse retry = perform(post("key-1", "{}"), createdChain());
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstRequest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            createdChain().doFilter(req, res);
+        };
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(
+                () -> performUnchecked(post("key-1", "{}"), slow));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> second = CompletableFuture.supplyAsync(
+                () -> performUnchecked(post("key-1", "{}"), createdChain()));
+
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+        MockHttpServletResponse replayed = second.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void duplicateThatMissedTheStoreRechecksItAfterTheFirstRequestLeaves() throws Exception {
+        IdempotencyProperties properties = new IdempotencyProperties(
+                IdempotencyProperties.Store.MEMORY, Duration.ofHours(1), 100, Duration.ofSeconds(5));
+        StallingStore store = new StallingStore(new InMemoryIdempotencyStore(properties, new SimpleMeterRegistry()));
+        filter = new IdempotencyFilter(store, properties.waitTimeout());
+
+        // The duplicate looks the key up before the first request has stored anything, then stalls
+        // until the first request has saved its response and left the in-flight map.
+        store.stallNextFind();
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(
+                () -> performUnchecked(post("key-1", "{}"), createdChain()));
+        assertThat(store.stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        MockHttpServletResponse first = perform(post("key-1", "{}"), createdChain());
+        store.resume.countDown();
+
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    private FilterChain createdChain() {
+        return (req, res) -> {
+            executions.incrementAndGet();
+            req.getInputStream().readAllBytes();
+            ((HttpServletResponse) res).setStatus(201);
+            res.setContentType("application/json");
+            res.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tweets");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse performUnchecked(MockHttpServletRequest request, FilterChain chain) {
+        try {
+            return perform(request, chain);
+        } catch (ServletException | IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class StallingStore implements IdempotencyStore {
+
+        private final IdempotencyStore delegate;
+        private final AtomicBoolean stallNext = new AtomicBoolean();
+        final CountDownLatch stalled = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+
+        StallingStore(IdempotencyStore delegate) {
+            this.delegate = delegate;
+        }
+
+        void stallNextFind() {
+            stallNext.set(true);
+        }
+
+        @Override
+        public Optional<IdempotentResponse> find(String key) {
+            Optional<IdempotentResponse> found = delegate.find(key);
+            if (stallNext.compareAndSet(true, false)) {
+                stalled.countDown();
+                try {
+                    resume.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void save(String key, IdempotentResponse response) {
+            delegate.save(key, response);
+        }
+    }
+}
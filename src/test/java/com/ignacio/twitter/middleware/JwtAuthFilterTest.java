@@ -3,6 +3,8 @@ package com.ignacio.twitter.middleware;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.auth.Permission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +16,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -76,6 +80,33 @@ class JwtAuthFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
+    @Test
+    void decodesPermissionMaskAndNamedActions() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        AtomicReference<Authentication> capturedAuth = new AtomicReference<>();
+        FilterChain filterChain = (req, res) -> capturedAuth.set(SecurityContextHolder.getContext().getAuthentication());
+
+        String token = Jwts.builder()
+                .subject("adal")
+                .claim("userId", 42L)
+                .claim("perm", Permission.TWEET_READ.mask() | Permission.EVENTS_READ.mask())
+                .claim("actions", List.of("reports:read"))
+                .issuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        request.addHeader(JwtAuthFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        AuthenticatedUser principal = (AuthenticatedUser) capturedAuth.get().getPrincipal();
+        assertThat(principal.has(Permission.TWEET_READ)).isTrue();
+        assertThat(principal.has(Permission.TWEET_WRITE)).isFalse();
+        assertThat(principal.hasAction("reports:read")).isTrue();
+        assertThat(capturedAuth.get().getAuthorities())
+                .extracting("authority")
+                .containsExactlyInAnyOrder("tweet:read", "events:read", "reports:read");
+    }
+
     @Test
     void ignoresTokenWithoutUserIdClaim() throws ServletException, IOException {
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -110,8 +141,63 @@ class JwtAuthFilterTest {
         assertThat(capturedAuth.get()).isNull();
     }
 
+    @Test
+    void reusesVerifiedTokenFromCache() throws ServletException, IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtAuthFilter cachingFilter = new JwtAuthFilter(SECRET, 100, meterRegistry);
+        String token = validToken(7L);
+        List<Authentication> captured = new ArrayList<>();
+        FilterChain filterChain = (req, res) -> captured.add(SecurityContextHolder.getContext().getAuthentication());
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(JwtAuthFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+            cachingFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        assertThat(captured).hasSize(2).allSatisfy(authentication -> {
+            assertThat(authentication).isNotNull();
+            assertThat(((AuthenticatedUser) authentication.getPrincipal()).userId()).isEqualTo(7L);
+        });
+        assertThat(captured.get(0)).isNotSameAs(captured.get(1));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectsTamperedTokenAfterGenuineOneWasCached() throws ServletException, IOException {
+        String token = validToken(8L);
+        AtomicReference<Authentication> capturedAuth = new AtomicReference<>();
+        FilterChain filterChain = (req, res) -> capturedAuth.set(SecurityContextHolder.getContext().getAuthentication());
+        MockHttpServletRequest genuine = new MockHttpServletRequest();
+        genuine.addHeader(JwtAuthFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        filter.doFilter(genuine, new MockHttpServletResponse(), filterChain);
+        assertThat(capturedAuth.get()).isNotNull();
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.addHeader(JwtAuthFilter.AUTHORIZATION_HEADER, "Bearer " + tampered);
+        filter.doFilter(forged, new MockHttpServletResponse(), filterChain);
+
+        assertThat(capturedAuth.get()).isNull();
+    }
+
     @Test
     void requiresSecretConfiguration() {
         assertThrows(IllegalArgumentException.class, () -> new JwtAuthFilter(" "));
     }
+
+    private static String validToken(long userId) {
+        return Jwts.builder()
+                .subject("adal")
+                .claim("userId", userId)
+                .claim("actions", java.util.List.of("tweet:read"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
 }
@@ -0,0 +1,91 @@
+package com.ignacio.twitter.replay;
+
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.models.Follow;
+import com.ignacio.twitter.models.User;
+import com.ignacio.twitter.repositories.EventRepository;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(UserRepository.class)
+class FollowerCountProjectionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // "lock table ... in share mode" is Postgres-only; the lock itself is not what is under test.
+    @MockitoBean
+    private FollowRepository followRepository;
+
+    @MockitoBean
+    private EventRepository eventRepository;
+
+    @Test
+    void liveFollowDuringResetIsCountedOnceEvenWhenReplayedTwice() {
+        User popular = persistUser("popular");
+        User early = persistUser("early");
+        User late = persistUser("late");
+        persistFollow(early, popular);
+        entityManager.flush();
+        when(eventRepository.findMaxId()).thenReturn(100L);
+        FollowerCountProjection projection = new FollowerCountProjection(userRepository, followRepository, eventRepository);
+
+        long rebuiltThrough = projection.reset();
+
+        // A follow that waited on the share lock commits after the snapshot: FollowServiceImpl has
+        // already bumped the count, and its event id lies above the high-water mark.
+        persistFollow(late, popular);
+        entityManager.flush();
+        userRepository.adjustFollowerCount(popular.getId(), 1);
+        EventMessage followed = new EventMessage(rebuiltThrough + 1, EventType.USER_FOLLOWED, "user",
+                popular.getId(), late.getId(), LocalDateTime.now());
+
+        projection.handle(followed);
+        projection.flush();
+        assertThat(followerCount(popular)).isEqualTo(2);
+
+        // A resume, or a second node replaying the same range, sees the event again.
+        projection.handle(followed);
+        projection.flush();
+        assertThat(followerCount(popular)).isEqualTo(2);
+        assertThat(followerCount(late)).isZero();
+    }
+
+    private long followerCount(User user) {
+        entityManager.clear();
+        return entityManager.find(User.class, user.getId()).getFollowerCount();
+    }
+
+    private void persistFollow(User follower, User followee) {
+        entityManager.persist(Follow.builder()
+                .followerId(follower.getId())
+                .followeeId(followee.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private User persistUser(String handle) {
+        User user = User.builder()
+                .email(handle + "@example.com")
+                .handle(handle)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ignacio.twitter.replay;
+
+import com.ignacio.twitter.configurations.ReplayProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.dto.ReplayStatus;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.models.ProjectionCheckpoint;
+import com.ignacio.twitter.repositories.EventRepository;
+import com.ignacio.twitter.repositories.ProjectionCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplayEngineTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ProjectionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void run_keepsPerEntityOrderAndCheckpointsTheLastEvent() {
+        when(checkpointRepository.findByProjection("recording")).thenReturn(Optional.empty());
+        when(eventRepository.streamAfter(0L)).thenReturn(LongStream.rangeClosed(1, 30)
+                .mapToObj(id -> event(id, id % 4)));
+        RecordingProjection projection = new RecordingProjection(null);
+        ReplayJob job = new ReplayJob("recording");
+
+        engine(4).run(projection, false, job);
+
+        assertThat(job.snapshot().state()).isEqualTo(ReplayStatus.State.COMPLETED);
+        assertThat(job.snapshot().eventsProcessed()).isEqualTo(30);
+        assertThat(job.snapshot().lastEventId()).isEqualTo(30);
+        assertThat(projection.handled.values().stream().mapToInt(List::size).sum()).isEqualTo(30);
+        projection.handled.values().forEach(ids -> assertThat(ids).isSorted());
+        assertThat(projection.flushes.get()).isEqualTo(4);
+        ArgumentCaptor<ProjectionCheckpoint> saved = ArgumentCaptor.forClass(ProjectionCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        assertThat(saved.getValue().getLastEventId()).isEqualTo(30);
+    }
+
+    @Test
+    void run_resumesAfterStoredCheckpoint() {
+        ProjectionCheckpoint checkpoint = ProjectionCheckpoint.builder()
+                .projection("recording")
+                .lastEventId(20)
+                .eventsProcessed(20)
+                .build();
+        when(checkpointRepository.findByProjection("recording")).thenReturn(Optional.of(checkpoint));
+        when(eventRepository.streamAfter(20L)).thenReturn(LongStream.rangeClosed(21, 25)
+                .mapToObj(id -> event(id, id)));
+        ReplayJob job = new ReplayJob("recording");
+
+        engine(2).run(new RecordingProjection(null), false, job);
+
+        assertThat(job.snapshot().eventsProcessed()).isEqualTo(5);
+        assertThat(checkpoint.getLastEventId()).isEqualTo(25);
+        assertThat(checkpoint.getEventsProcessed()).isEqualTo(25);
+    }
+
+    @Test
+    void run_withResetClearsCheckpointAndProjection() {
+        when(checkpointRepository.findByProjection("recording")).thenReturn(Optional.empty());
+        when(eventRepository.streamAfter(0L)).thenReturn(LongStream.rangeClosed(1, 2).mapToObj(id -> event(id, id)));
+        RecordingProjection projection = new RecordingProjection(null);
+
+        engine(1).run(projection, true, new ReplayJob("recording"));
+
+        verify(checkpointRepository).deleteByProjection("recording");
+        assertThat(projection.resets.get()).isEqualTo(1);
+    }
+
+    @Test
+    void run_withResetContinuesAfterEventsTheRebuildReflects() {
+        when(checkpointRepository.findByProjection("recording")).thenReturn(Optional.empty());
+        when(eventRepository.streamAfter(40L)).thenReturn(LongStream.rangeClosed(41, 42).mapToObj(id -> event(id, id)));
+        RecordingProjection projection = new RecordingProjection(null);
+        projection.rebuiltThrough = 40L;
+        ReplayJob job = new ReplayJob("recording");
+
+        engine(1).run(projection, true, job);
+
+        ArgumentCaptor<ProjectionCheckpoint> saved = ArgumentCaptor.forClass(ProjectionCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        assertThat(saved.getAllValues().get(0).getLastEventId()).isEqualTo(40L);
+        assertThat(job.snapshot().eventsProcessed()).isEqualTo(2);
+        assertThat(job.snapshot().lastEventId()).isEqualTo(42);
+    }
+
+    @Test
+    void run_stopsAtHandlerFailureWithoutAdvancingCheckpoint() {
+        when(checkpointRepository.findByProjection("recording")).thenReturn(Optional.empty());
+        when(eventRepository.streamAfter(0L)).thenReturn(LongStream.rangeClosed(1, 2).mapToObj(id -> event(id, 1L)));
+        RecordingProjection projection = new RecordingProjection(2L);
+        ReplayJob job = new ReplayJob("recording");
+
+        engine(2).run(projection, false, job);
+
+        assertThat(job.snapshot().state()).isEqualTo(ReplayStatus.State.FAILED);
+        assertThat(job.snapshot().error()).isEqualTo("boom at 2");
+        assertThat(projection.discards.get()).isEqualTo(1);
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private ReplayEngine engine(int parallelism) {
+        return new ReplayEngine(eventRepository, checkpointRepository,
+                new ReplayProperties(parallelism, 4, 10), transactionManager);
+    }
+
+    private EventMessage event(long id, long entityId) {
+        return new EventMessage(id, EventType.USER_FOLLOWED, "user", entityId, 1L, LocalDateTime.now());
+    }
+
+    private static final class RecordingProjection implements Projection {
+
+        private final Long failOn;
+        private final Map<Long, List<Long>> handled = new ConcurrentHashMap<>();
+        private final AtomicInteger flushes = new AtomicInteger();
+        private final AtomicInteger resets = new AtomicInteger();
+        private final AtomicInteger discards = new AtomicInteger();
+        private long rebuiltThrough;
+
+        private RecordingProjection(Long failOn) {
+            this.failOn = failOn;
+        }
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void handle(EventMessage event) {
+            if (event.id().equals(failOn)) {
+                throw new IllegalStateException("boom at " + event.id());
+            }
+            handled.computeIfAbsent(event.entityId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.id());
+        }
+
+        @Override
+        public void flush() {
+            flushes.incrementAndGet();
+        }
+
+        @Override
+        public void discardPending() {
+            discards.incrementAndGet();
+        }
+
+        @Override
+        public long reset() {
+            resets.incrementAndGet();
+            return rebuiltThrough;
+        }
+    }
+}
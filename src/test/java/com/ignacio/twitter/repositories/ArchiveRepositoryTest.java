@@ -0,0 +1,127 @@
+package com.ignacio.twitter.repositories;
+
+import com.ignacio.twitter.models.Follow;
+import com.ignacio.twitter.models.Tweet;
+import com.ignacio.twitter.models.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ArchiveRepository.class)
+class ArchiveRepositoryTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.now().minusDays(30);
+
+    @Autowired
+    private ArchiveRepository archiveRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void createArchiveTables() {
+        // The test schema is generated from the entities; the archive tables only exist in V21.
+        entityManager.createNativeQuery("""
+                create table if not exists tweets_archive (
+                    id bigint primary key, content varchar(200) not null, timestamp timestamp,
+                    user_id bigint not null, deleted_at timestamp not null, version bigint not null,
+                    archived_at timestamp not null default now())
+                """).executeUpdate();
+        entityManager.createNativeQuery("""
+                create table if not exists users_archive (
+                    id bigint primary key, first_name varchar(255), last_name varchar(255),
+                    email varchar(255) not null, handle varchar(255) not null, deleted_at timestamp not null,
+                    version bigint not null, follower_count bigint not null,
+                    archived_at timestamp not null default now())
+                """).executeUpdate();
+    }
+
+    @Test
+    void archiveTweets_movesOnlyRowsDeletedBeforeTheCutoff() {
+        User author = persistUser("tweeter", null);
+        Tweet old = persistTweet(author, CUTOFF.minusDays(1));
+        Tweet recent = persistTweet(author, CUTOFF.plusDays(1));
+        Tweet live = persistTweet(author, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveRepository.archiveTweets(CUTOFF, 10)).isEqualTo(1);
+
+        assertThat(ids("select id from tweets order by id")).containsExactly(recent.getId(), live.getId());
+        assertThat(ids("select id from tweets_archive")).containsExactly(old.getId());
+        assertThat(archiveRepository.archiveTweets(CUTOFF, 10)).isZero();
+    }
+
+    @Test
+    void archiveTweets_respectsTheBatchLimit() {
+        User author = persistUser("bulk", null);
+        for (int i = 0; i < 3; i++) {
+            persistTweet(author, CUTOFF.minusDays(1 + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveRepository.archiveTweets(CUTOFF, 2)).isEqualTo(2);
+        assertThat(archiveRepository.archiveTweets(CUTOFF, 2)).isEqualTo(1);
+        assertThat(ids("select id from tweets_archive")).hasSize(3);
+    }
+
+    @Test
+    void archiveUsers_skipsUsersStillReferenced() {
+        User gone = persistUser("gone", CUTOFF.minusDays(1));
+        User stillTweeting = persistUser("tweeting", CUTOFF.minusDays(1));
+        User stillFollowed = persistUser("followed", CUTOFF.minusDays(1));
+        User follower = persistUser("follower", null);
+        persistTweet(stillTweeting, null);
+        entityManager.persist(Follow.builder()
+                .followerId(follower.getId())
+                .followeeId(stillFollowed.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archiveRepository.archiveUsers(CUTOFF, 10)).isEqualTo(1);
+
+        assertThat(ids("select id from users_archive")).containsExactly(gone.getId());
+        assertThat(entityManager.find(User.class, gone.getId())).isNull();
+        assertThat(entityManager.find(User.class, stillFollowed.getId())).isNotNull();
+    }
+
+    private List<Long> ids(String sql) {
+        List<?> rows = entityManager.createNativeQuery(sql).getResultList();
+        return rows.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    private Tweet persistTweet(User author, LocalDateTime deletedAt) {
+        Tweet tweet = Tweet.builder()
+                .content("hello")
+                .author(author)
+                .timestamp(LocalDateTime.now())
+                .deletedAt(deletedAt)
+                .build();
+        entityManager.persist(tweet);
+        return tweet;
+    }
+
+    private User persistUser(String handle, LocalDateTime deletedAt) {
+        User user = User.builder()
+                .email(handle + "@example.com")
+                .handle(handle)
+                .deletedAt(deletedAt)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
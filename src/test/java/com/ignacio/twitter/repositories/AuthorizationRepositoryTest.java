@@ -61,5 +61,17 @@ class AuthorizationRepositoryTest {
         List<String> actions = authorizationRepository.findPermittedActionsByUserId(user.getId());
 
         assertThat(actions).containsExactly("tweet:read", "tweet:write");
+        assertThat(authorizationRepository.findRoleIdsByUserId(user.getId())).containsExactly(role.getId());
+        assertThat(authorizationRepository.findActionsByRoleId().get(role.getId()))
+                .containsExactlyInAnyOrder("tweet:read", "tweet:write");
+    }
+
+    @Test
+    void findActionsByRoleId_includesRolesWithoutScopes() {
+        Role empty = Role.builder().name("empty").build();
+        entityManager.persist(empty);
+        entityManager.flush();
+
+        assertThat(authorizationRepository.findActionsByRoleId().get(empty.getId())).isEmpty();
     }
 }
@@ -0,0 +1,71 @@
+package com.ignacio.twitter.repositories;
+
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(EventRepository.class)
+class EventRepositoryTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findAfter_returnsLaterEventsInIdOrder() {
+        Event first = event(1L);
+        Event second = event(2L);
+        Event third = event(3L);
+        eventRepository.saveAll(List.of(first, second, third));
+        entityManager.clear();
+
+        List<Event> after = eventRepository.findAfter(first.getId(), Duration.ZERO, 10);
+
+        assertThat(after).extracting(Event::getId).containsExactly(second.getId(), third.getId());
+        assertThat(eventRepository.findAfter(first.getId(), Duration.ZERO, 1)).extracting(Event::getId)
+                .containsExactly(second.getId());
+    }
+
+    @Test
+    void findAfter_acceptsIdsIssuedBeforeSortableIds() {
+        Event event = event(4L);
+        eventRepository.save(event);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(eventRepository.findAfter(0L, Duration.ofSeconds(5), 10)).extracting(Event::getId).containsExactly(event.getId());
+    }
+
+    @Test
+    void findAfter_rereadsTheOverlapWindowForLateCommits() {
+        Event committedLate = event(5L);
+        Event seen = event(6L);
+        eventRepository.saveAll(List.of(committedLate, seen));
+        entityManager.clear();
+
+        assertThat(eventRepository.findAfter(seen.getId(), Duration.ofMinutes(1), 10)).extracting(Event::getId)
+                .containsExactly(committedLate.getId());
+    }
+
+    private Event event(Long entityId) {
+        return Event.builder()
+                .eventType(EventType.TWEET_CREATED)
+                .entityType("tweet")
+                .entityId(entityId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
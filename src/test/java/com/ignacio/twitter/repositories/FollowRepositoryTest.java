@@ -0,0 +1,134 @@
+package com.ignacio.twitter.repositories;
+
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.models.Follow;
+import com.ignacio.twitter.models.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FollowRepository.class)
+class FollowRepositoryTest {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findFollowersPage_pagesByFollowerIdAndSkipsDeletedUsers() {
+        User celebrity = persistUser("celebrity", null);
+        User first = persistUser("first", null);
+        User second = persistUser("second", null);
+        User third = persistUser("third", null);
+        User deleted = persistUser("deleted", LocalDateTime.now());
+        for (User follower : List.of(third, first, deleted, second)) {
+            followRepository.save(follow(follower, celebrity));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UserSummary> firstPage = followRepository.findFollowersPage(celebrity.getId(), null, 2);
+        assertThat(firstPage).extracting(UserSummary::handle).containsExactly("first", "second");
+
+        List<UserSummary> secondPage = followRepository.findFollowersPage(
+                celebrity.getId(), new IdCursor(firstPage.get(1).id()), 2);
+        assertThat(secondPage).extracting(UserSummary::handle).containsExactly("third");
+    }
+
+    @Test
+    void findFollowingPage_listsFollowees() {
+        User fan = persistUser("fan", null);
+        User a = persistUser("a", null);
+        User b = persistUser("b", null);
+        followRepository.save(follow(fan, b));
+        followRepository.save(follow(fan, a));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(followRepository.findFollowingPage(fan.getId(), null, 10))
+                .extracting(UserSummary::handle)
+                .containsExactly("a", "b");
+    }
+
+    @Test
+    void adjacencyQueries_returnSortedIds() {
+        User fan = persistUser("sorted-fan", null);
+        User a = persistUser("sorted-a", null);
+        User b = persistUser("sorted-b", null);
+        followRepository.save(follow(fan, b));
+        followRepository.save(follow(fan, a));
+        followRepository.save(follow(a, b));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(followRepository.findFolloweeIdsByFollowerId(fan.getId()))
+                .containsExactly(a.getId(), b.getId());
+        assertThat(followRepository.findFollowerIdsByFolloweeId(b.getId()))
+                .containsExactly(fan.getId(), a.getId());
+    }
+
+    @Test
+    void deleteByFollowerIdAndFolloweeId_removesOnlyThatEdge() {
+        User fan = persistUser("delete-fan", null);
+        User a = persistUser("delete-a", null);
+        User b = persistUser("delete-b", null);
+        followRepository.save(follow(fan, a));
+        followRepository.save(follow(fan, b));
+        entityManager.flush();
+
+        assertThat(followRepository.deleteByFollowerIdAndFolloweeId(fan.getId(), a.getId())).isEqualTo(1);
+        assertThat(followRepository.deleteByFollowerIdAndFolloweeId(fan.getId(), a.getId())).isZero();
+
+        entityManager.clear();
+        assertThat(followRepository.existsByFollowerIdAndFolloweeId(fan.getId(), a.getId())).isFalse();
+        assertThat(followRepository.existsByFollowerIdAndFolloweeId(fan.getId(), b.getId())).isTrue();
+    }
+
+    @Test
+    void insertIfAbsent_insertsOnlyOnce() {
+        User follower = persistUser("eager", null);
+        User followee = persistUser("popular", null);
+        entityManager.flush();
+
+        boolean first = followRepository.insertIfAbsent(follower.getId(), followee.getId(), LocalDateTime.now());
+        boolean second = followRepository.insertIfAbsent(follower.getId(), followee.getId(), LocalDateTime.now());
+
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(followRepository.existsByFollowerIdAndFolloweeId(follower.getId(), followee.getId())).isTrue();
+    }
+
+    private Follow follow(User follower, User followee) {
+        return Follow.builder()
+                .followerId(follower.getId())
+                .followeeId(followee.getId())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private User persistUser(String handle, LocalDateTime deletedAt) {
+        User user = User.builder()
+                .email(handle + "@example.com")
+                .handle(handle)
+                .deletedAt(deletedAt)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
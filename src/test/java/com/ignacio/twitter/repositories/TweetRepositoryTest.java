@@ -1,8 +1,15 @@
 package com.ignacio.twitter.repositories;
 
+import com.ignacio.twitter.dto.PendingUserDeletion;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetExportRow;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.models.Follow;
 import com.ignacio.twitter.models.Tweet;
 import com.ignacio.twitter.models.User;
 import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -10,6 +17,7 @@ import org.springframework.context.annotation.Import;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,6 +46,190 @@ class TweetRepositoryTest {
         assertThat(results.get(0).getId()).isEqualTo(active.getId());
     }
 
+    @Test
+    void findPageByDeletedAtIsNull_pagesByTimestampThenId() {
+        User author = persistUser("pager@example.com", "pager");
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 10, 0);
+        Tweet oldest = persistTweet(author, "oldest", base.minusHours(1), null);
+        Tweet tiedLow = persistTweet(author, "tied-low", base, null);
+        Tweet tiedHigh = persistTweet(author, "tied-high", base, null);
+        Tweet newest = persistTweet(author, "newest", base.plusHours(1), null);
+        persistTweet(author, "deleted", base.plusHours(2), LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TweetView> firstPage = tweetRepository.findPageByDeletedAtIsNull(null, 2);
+        assertThat(firstPage).extracting(TweetView::id).containsExactly(newest.getId(), tiedHigh.getId());
+
+        TweetView last = firstPage.get(1);
+        List<TweetView> secondPage = tweetRepository.findPageByDeletedAtIsNull(
+                new TweetCursor(last.timestamp(), last.id()), 2);
+        assertThat(secondPage).extracting(TweetView::id).containsExactly(tiedLow.getId(), oldest.getId());
+    }
+
+    @Test
+    void findPageByAuthorIdAndDeletedAtIsNull_returnsOnlyAuthorTweets() {
+        User author = persistUser("timeline@example.com", "timeline");
+        User other = persistUser("other@example.com", "other");
+        LocalDateTime base = LocalDateTime.of(2024, 4, 1, 9, 0);
+        Tweet older = persistTweet(author, "older", base, null);
+        Tweet newer = persistTweet(author, "newer", base.plusMinutes(5), null);
+        persistTweet(other, "someone else", base.plusMinutes(10), null);
+        persistTweet(author, "deleted", base.plusMinutes(15), LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TweetView> page = tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(author.getId(), null, 10);
+        assertThat(page).extracting(TweetView::id).containsExactly(newer.getId(), older.getId());
+
+        List<TweetView> afterNewer = tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(
+                author.getId(), new TweetCursor(newer.getTimestamp(), newer.getId()), 10);
+        assertThat(afterNewer).extracting(TweetView::id).containsExactly(older.getId());
+    }
+
+    @Test
+    void findPageByDeletedAtIsNull_usesSingleStatementRegardlessOfAuthorCount() {
+        for (int i = 0; i < 5; i++) {
+            User author = persistUser("n" + i + "@example.com", "n" + i);
+            persistTweet(author, "tweet " + i, null);
+            persistTweet(author, "another " + i, null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        List<TweetView> single = tweetRepository.findPageByDeletedAtIsNull(null, 1);
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<TweetView> all = tweetRepository.findPageByDeletedAtIsNull(null, 10);
+        long allStatements = statistics.getPrepareStatementCount();
+
+        assertThat(single).hasSize(1);
+        assertThat(all).hasSize(10);
+        assertThat(all).allSatisfy(view -> assertThat(view.author().handle()).isNotBlank());
+        assertThat(singleStatements).isEqualTo(1);
+        assertThat(allStatements).isEqualTo(1);
+    }
+
+    @Test
+    void save_batchesInsertsIntoFewStatements() {
+        User author = persistUser("batcher@example.com", "batcher");
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        for (int i = 0; i < 120; i++) {
+            tweetRepository.save(Tweet.builder().content("bulk " + i).author(author).build());
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void findAllByIdInAndDeletedAtIsNull_loadsManagedEntities() {
+        User author = persistUser("many@example.com", "many");
+        Tweet first = persistTweet(author, "first", null);
+        Tweet deleted = persistTweet(author, "deleted", LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Tweet> tweets = tweetRepository.findAllByIdInAndDeletedAtIsNull(List.of(first.getId(), deleted.getId()));
+
+        assertThat(tweets).extracting(Tweet::getId).containsExactly(first.getId());
+        assertThat(entityManager.contains(tweets.get(0))).isTrue();
+        assertThat(tweetRepository.findAllByIdInAndDeletedAtIsNull(List.of())).isEmpty();
+    }
+
+    @Test
+    void findViewByIdAndDeletedAtIsNull_returnsAuthorSummary() {
+        User author = persistUser("view@example.com", "viewer");
+        Tweet active = persistTweet(author, "active", null);
+        Tweet deleted = persistTweet(author, "deleted", LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        TweetView view = tweetRepository.findViewByIdAndDeletedAtIsNull(active.getId()).orElseThrow();
+        assertThat(view.content()).isEqualTo("active");
+        assertThat(view.author().id()).isEqualTo(author.getId());
+        assertThat(view.author().handle()).isEqualTo("viewer");
+        assertThat(tweetRepository.findViewByIdAndDeletedAtIsNull(deleted.getId())).isEmpty();
+    }
+
+    @Test
+    void findViewsByIdInAndDeletedAtIsNull_skipsDeletedAndUnknownIds() {
+        User author = persistUser("bulk@example.com", "bulk");
+        Tweet first = persistTweet(author, "first", null);
+        Tweet second = persistTweet(author, "second", null);
+        Tweet deleted = persistTweet(author, "deleted", LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TweetView> views = tweetRepository.findViewsByIdInAndDeletedAtIsNull(
+                List.of(first.getId(), second.getId(), deleted.getId(), -1L));
+
+        assertThat(views).extracting(TweetView::id).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(views).extracting(view -> view.author().handle()).containsOnly("bulk");
+    }
+
+    @Test
+    void findRecentIdsForHomeTimeline_includesOwnAndFollowedTweets() {
+        User reader = persistUser("reader@example.com", "reader");
+        User followed = persistUser("followed@example.com", "followed");
+        User stranger = persistUser("stranger@example.com", "stranger");
+        entityManager.persist(Follow.builder()
+                .followerId(reader.getId())
+                .followeeId(followed.getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+        Tweet own = persistTweet(reader, "own", null);
+        Tweet fromFollowed = persistTweet(followed, "followed", null);
+        persistTweet(followed, "deleted", LocalDateTime.now());
+        persistTweet(stranger, "stranger", null);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tweetRepository.findRecentIdsForHomeTimeline(reader.getId(), 10))
+                .containsExactly(fromFollowed.getId(), own.getId());
+    }
+
+    @Test
+    void streamAllForExport_includesDeletedRowsInIdOrder() {
+        User author = persistUser("export@example.com", "exporter");
+        Tweet first = persistTweet(author, "first", null);
+        Tweet deleted = persistTweet(author, "deleted", LocalDateTime.now());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TweetExportRow> rows;
+        try (Stream<TweetExportRow> stream = tweetRepository.streamAllForExport()) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(TweetExportRow::id).containsExactly(first.getId(), deleted.getId());
+        assertThat(rows.get(0).authorId()).isEqualTo(author.getId());
+        assertThat(rows.get(0).deletedAt()).isNull();
+        assertThat(rows.get(1).deletedAt()).isNotNull();
+    }
+
     @Test
     void findByIdAndDeletedAtIsNull_returnsEmptyForDeleted() {
         User author = persistUser("author2@example.com", "author2");
@@ -85,6 +277,87 @@ class TweetRepositoryTest {
         assertThat(updated.getContent()).isEqualTo("updated");
     }
 
+    @Test
+    void updateIfVersionMatches_appliesOnlyAtExpectedVersion() {
+        User author = persistUser("cas@example.com", "cas");
+        User other = persistUser("cas2@example.com", "cas2");
+        Tweet tweet = persistTweet(author, "before", null);
+        entityManager.flush();
+        entityManager.clear();
+        long version = tweetRepository.findViewByIdAndDeletedAtIsNull(tweet.getId()).orElseThrow().version();
+
+        assertThat(tweetRepository.updateIfVersionMatches(tweet.getId(), version + 1, "stale", other.getId())).isFalse();
+        assertThat(tweetRepository.updateIfVersionMatches(tweet.getId(), version, "after", other.getId())).isTrue();
+        assertThat(tweetRepository.updateIfVersionMatches(tweet.getId(), version, "again", other.getId())).isFalse();
+
+        TweetView view = tweetRepository.findViewByIdAndDeletedAtIsNull(tweet.getId()).orElseThrow();
+        assertThat(view.content()).isEqualTo("after");
+        assertThat(view.author().id()).isEqualTo(other.getId());
+        assertThat(view.version()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void updateIfVersionMatches_rejectsDeletedAuthor() {
+        User author = persistUser("keep@example.com", "keep");
+        User gone = persistUser("gone@example.com", "gone");
+        gone.setDeletedAt(LocalDateTime.now());
+        Tweet tweet = persistTweet(author, "before", null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tweetRepository.updateIfVersionMatches(tweet.getId(), tweet.getVersion(), "after", gone.getId()))
+                .isFalse();
+    }
+
+    @Test
+    void softDeleteIfVersionMatches_hidesTweetOnce() {
+        User author = persistUser("softdel@example.com", "softdel");
+        Tweet tweet = persistTweet(author, "bye", null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tweetRepository.softDeleteIfVersionMatches(tweet.getId(), tweet.getVersion(), LocalDateTime.now()))
+                .isTrue();
+        assertThat(tweetRepository.softDeleteIfVersionMatches(tweet.getId(), tweet.getVersion() + 1, LocalDateTime.now()))
+                .isFalse();
+        assertThat(tweetRepository.findViewByIdAndDeletedAtIsNull(tweet.getId())).isEmpty();
+    }
+
+    @Test
+    void softDeleteByIdIn_skipsAlreadyDeletedTweets() {
+        User author = persistUser("bulk@example.com", "bulk");
+        Tweet first = persistTweet(author, "one", null);
+        Tweet second = persistTweet(author, "two", null);
+        Tweet gone = persistTweet(author, "gone", LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = tweetRepository.softDeleteByIdIn(
+                List.of(first.getId(), second.getId(), gone.getId()), LocalDateTime.now());
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(author.getId(), null, 10)).isEmpty();
+    }
+
+    @Test
+    void findDeletedAuthorsWithLiveTweets_returnsOnlyDeletedUsersWithLiveTweets() {
+        LocalDateTime deletedAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        User unfinished = persistUser("unfinished@example.com", "unfinished");
+        unfinished.setDeletedAt(deletedAt);
+        User finished = persistUser("finished@example.com", "finished");
+        finished.setDeletedAt(deletedAt);
+        User live = persistUser("live@example.com", "live");
+        persistTweet(unfinished, "left behind", null);
+        persistTweet(unfinished, "also left", null);
+        persistTweet(finished, "gone", deletedAt);
+        persistTweet(live, "still here", null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tweetRepository.findDeletedAuthorsWithLiveTweets(10))
+                .containsExactly(new PendingUserDeletion(unfinished.getId(), deletedAt));
+    }
+
     @Test
     void deleteAll_removesRows() {
         User author = persistUser("delete@author.com", "deleteauthor");
@@ -113,9 +386,14 @@ class TweetRepositoryTest {
     }
 
     private Tweet persistTweet(User author, String content, LocalDateTime deletedAt) {
+        return persistTweet(author, content, null, deletedAt);
+    }
+
+    private Tweet persistTweet(User author, String content, LocalDateTime timestamp, LocalDateTime deletedAt) {
         Tweet tweet = Tweet.builder()
                 .content(content)
                 .author(author)
+                .timestamp(timestamp)
                 .deletedAt(deletedAt)
                 .build();
         entityManager.persist(tweet);
@@ -49,4 +49,37 @@ class UserCredentialRepositoryTest {
         assertThat(found.get().getUserId()).isEqualTo(user.getId());
         assertThat(found.get().getUsername()).isEqualTo("adal");
     }
+
+    @Test
+    void updatePasswordHashIfUnchanged_onlyReplacesExpectedHash() {
+        User user = User.builder()
+                .firstName("Grace")
+                .lastName("Hopper")
+                .email("grace@hopper.com")
+                .handle("grace")
+                .build();
+        entityManager.persist(user);
+        entityManager.flush();
+        userCredentialRepository.save(UserCredential.builder()
+                .userId(user.getId())
+                .username("grace")
+                .passwordHash("$2a$10$oldhash")
+                .passwordSalt("$2a$10$oldhash")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        boolean stale = userCredentialRepository.updatePasswordHashIfUnchanged(user.getId(),
+                "$2a$10$otherhash", "$2a$12$newhash", "$2a$12$newhash");
+        boolean current = userCredentialRepository.updatePasswordHashIfUnchanged(user.getId(),
+                "$2a$10$oldhash", "$2a$12$newhash", "$2a$12$newhash");
+        entityManager.clear();
+
+        assertThat(stale).isFalse();
+        assertThat(current).isTrue();
+        assertThat(userCredentialRepository.findByUserId(user.getId()))
+                .get()
+                .extracting(UserCredential::getPasswordHash)
+                .isEqualTo("$2a$12$newhash");
+    }
 }
@@ -1,5 +1,6 @@
 package com.ignacio.twitter.repositories;
 
+import com.ignacio.twitter.models.Follow;
 import com.ignacio.twitter.models.User;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
@@ -97,6 +98,47 @@ class UserRepositoryTest {
         assertThat(count).isZero();
     }
 
+    @Test
+    void findVersionByIdAndDeletedAtIsNull_tracksUpdates() {
+        User user = persistUser("versioned@example.com", "versioned", null);
+        entityManager.flush();
+
+        assertThat(userRepository.findVersionByIdAndDeletedAtIsNull(user.getId())).contains(0L);
+
+        user.setHandle("versioned2");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findVersionByIdAndDeletedAtIsNull(user.getId())).contains(1L);
+        assertThat(userRepository.findVersionByIdAndDeletedAtIsNull(-1L)).isEmpty();
+    }
+
+    @Test
+    void rebuildFollowerCounts_countsFollowsTable() {
+        User popular = persistUser("popular@example.com", "popular", null);
+        User drifted = persistUser("drifted@example.com", "drifted", null);
+        User fan = persistUser("fan@example.com", "fan", null);
+        popular.setFollowerCount(0);
+        drifted.setFollowerCount(5);
+        entityManager.flush();
+        for (User followee : List.of(popular, drifted)) {
+            entityManager.persist(Follow.builder()
+                    .followerId(fan.getId())
+                    .followeeId(followee.getId())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        userRepository.rebuildFollowerCounts();
+        entityManager.clear();
+
+        assertThat(entityManager.find(User.class, popular.getId()).getFollowerCount()).isEqualTo(1);
+        assertThat(entityManager.find(User.class, drifted.getId()).getFollowerCount()).isEqualTo(1);
+        assertThat(entityManager.find(User.class, fan.getId()).getFollowerCount()).isZero();
+    }
+
     private User persistUser(String email, String handle, LocalDateTime deletedAt) {
         User user = User.builder()
                 .firstName("First")
@@ -0,0 +1,87 @@
+package com.ignacio.twitter.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void add_acrossBlocksKeepsIdsSortedAndDeduplicated() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 1000; id += 2) {
+            list.add(id);
+        }
+
+        assertThat(list.add(501)).isFalse();
+        assertThat(list.add(500)).isTrue();
+        assertThat(list.add(0)).isTrue();
+
+        assertThat(list.size()).isEqualTo(502);
+        assertThat(readNewestFirst(list)).startsWith(999L, 997L).endsWith(1L, 0L).contains(500L);
+    }
+
+    @Test
+    void remove_dropsIdsFromTailAndSealedBlocks() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 300; id++) {
+            list.add(id);
+        }
+
+        assertThat(list.remove(299)).isTrue();
+        assertThat(list.remove(5)).isTrue();
+        assertThat(list.remove(5)).isFalse();
+        assertThat(list.remove(1000)).isFalse();
+
+        assertThat(list.size()).isEqualTo(298);
+        assertThat(readNewestFirst(list)).doesNotContain(299L, 5L).contains(300L, 6L, 4L);
+    }
+
+    @Test
+    void randomOperations_matchSortedSet() {
+        Random random = new Random(42);
+        PostingList list = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(list.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                assertThat(list.add(id)).isEqualTo(expected.add(id));
+            }
+        }
+
+        assertThat(list.size()).isEqualTo(expected.size());
+        assertThat(readNewestFirst(list)).containsExactlyElementsOf(expected.descendingSet());
+    }
+
+    @Test
+    void cursor_seeksLargestIdAtMostTarget() {
+        PostingList list = new PostingList();
+        for (long id = 10; id <= 2000; id += 10) {
+            list.add(id);
+        }
+        PostingList.Cursor cursor = list.cursor();
+
+        assertThat(cursor.seekAtMost(5000)).isEqualTo(2000);
+        assertThat(cursor.seekAtMost(1555)).isEqualTo(1550);
+        assertThat(cursor.seekAtMost(15)).isEqualTo(10);
+        assertThat(cursor.seekAtMost(9)).isEqualTo(-1);
+    }
+
+    private List<Long> readNewestFirst(PostingList list) {
+        List<Long> ids = new ArrayList<>();
+        PostingList.Cursor cursor = list.cursor();
+        long next = cursor.seekAtMost(Long.MAX_VALUE);
+        while (next >= 0) {
+            ids.add(next);
+            next = next == 0 ? -1 : cursor.seekAtMost(next - 1);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ignacio.twitter.search;
+
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TweetSearchIndexTest {
+
+    private final TweetSearchIndex index = new TweetSearchIndex(new SimpleMeterRegistry());
+
+    @Test
+    void search_intersectsTermsNewestFirst() {
+        index.add(1, "Spring Boot is great");
+        index.add(2, "boot camp");
+        index.add(3, "spring, boot & caffeine");
+        index.add(4, "spring cleaning");
+
+        assertThat(index.search(List.of("spring", "boot"), null, 10)).containsExactly(3L, 1L);
+        assertThat(index.search(List.of("boot"), null, 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.search(List.of("spring", "missing"), null, 10)).isEmpty();
+    }
+
+    @Test
+    void search_pagesBeforeCursor() {
+        for (long id = 1; id <= 500; id++) {
+            index.add(id, id % 2 == 0 ? "even number" : "odd number");
+        }
+
+        assertThat(index.search(List.of("even", "number"), null, 2)).containsExactly(500L, 498L);
+        assertThat(index.search(List.of("even", "number"), 498L, 2)).containsExactly(496L, 494L);
+        assertThat(index.search(List.of("number"), 3L, 5)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void onTweetChanged_replacesTermsOnUpdateAndRemovesOnDelete() {
+        index.onTweetChanged(new TweetChangedEvent(7L, 1L, EventType.TWEET_CREATED, null, "hello world"));
+        index.onTweetChanged(new TweetChangedEvent(7L, 1L, EventType.TWEET_UPDATED, "hello world", "goodbye world"));
+
+        assertThat(index.search(List.of("hello"), null, 10)).isEmpty();
+        assertThat(index.search(List.of("goodbye", "world"), null, 10)).containsExactly(7L);
+
+        index.onTweetChanged(new TweetChangedEvent(7L, 1L, EventType.TWEET_DELETED, "goodbye world", null));
+
+        assertThat(index.search(List.of("world"), null, 10)).isEmpty();
+    }
+
+    @Test
+    void tokenize_lowercasesAndSplitsOnPunctuation() {
+        assertThat(Tokenizer.tokenize("Hello, #Spring-Boot! hello")).containsExactly("hello", "spring", "boot");
+    }
+}
@@ -0,0 +1,195 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.AuditProperties;
+import com.ignacio.twitter.dto.EventMessage;
+import com.ignacio.twitter.events.EventRelay;
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventWriterTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventRelay eventRelay;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void record_outboxModeSavesInCallerTransaction() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.OUTBOX, 10, 5, AuditProperties.Overflow.DROP);
+        Event event = event(1L);
+
+        writer.record(event);
+
+        verify(eventRepository).save(event);
+        verify(eventRelay).publish(EventMessage.from(event));
+        assertThat(writer.depth()).isZero();
+    }
+
+    @Test
+    void record_outboxModeRelaysOnlyAfterCommit() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.OUTBOX, 10, 5, AuditProperties.Overflow.DROP);
+        Event event = event(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.record(event);
+
+            verify(eventRepository).save(event);
+            verify(eventRelay, never()).publish(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(eventRelay).publish(EventMessage.from(event));
+    }
+
+    @Test
+    void flush_writesQueuedEventsInBatchesOfConfiguredSize() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 10, 2, AuditProperties.Overflow.DROP);
+        for (long id = 1; id <= 5; id++) {
+            writer.enqueue(event(id));
+        }
+
+        assertThat(writer.depth()).isEqualTo(5);
+        assertThat(writer.flush()).isEqualTo(2);
+        assertThat(writer.flush()).isEqualTo(2);
+        assertThat(writer.flush()).isEqualTo(1);
+        assertThat(writer.flush()).isZero();
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(5);
+        assertThat(meterRegistry.timer("audit.flush").count()).isEqualTo(3);
+        verify(eventRelay, times(5)).publish(any());
+    }
+
+    @Test
+    void enqueue_dropsWhenQueueIsFullUnderDropPolicy() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 2, 10, AuditProperties.Overflow.DROP);
+
+        writer.enqueue(event(1L));
+        writer.enqueue(event(2L));
+        writer.enqueue(event(3L));
+
+        assertThat(writer.depth()).isEqualTo(2);
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(1);
+        verify(eventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void enqueue_writesThroughWhenQueueIsFullUnderWriteThroughPolicy() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 1, 10, AuditProperties.Overflow.WRITE_THROUGH);
+        Event overflow = event(2L);
+
+        writer.enqueue(event(1L));
+        writer.enqueue(overflow);
+
+        assertThat(writer.depth()).isEqualTo(1);
+        verify(eventRepository).saveAll(List.of(overflow));
+    }
+
+    @Test
+    void record_asyncModeQueuesOnlyAfterCommit() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 10, 10, AuditProperties.Overflow.DROP);
+        Event event = event(1L);
+        writer.start();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.record(event);
+
+            assertThat(writer.depth()).isZero();
+            verify(eventRepository, never()).save(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            writer.stop();
+        }
+
+        assertThat(writer.isRunning()).isFalse();
+        verify(eventRepository).saveAll(List.of(event));
+    }
+
+    @Test
+    void flush_retriesAFailedBatch() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 10, 10, AuditProperties.Overflow.DROP);
+        Event event = event(1L);
+        doThrow(new IllegalStateException("connection reset")).doNothing().when(eventRepository).saveAll(any());
+        writer.enqueue(event);
+
+        assertThat(writer.flush()).isEqualTo(1);
+
+        verify(eventRepository, times(2)).saveAll(List.of(event));
+        verify(eventRelay).publish(EventMessage.from(event));
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isZero();
+    }
+
+    @Test
+    void flush_dropsABatchOnlyAfterEveryAttemptFails() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 10, 10, AuditProperties.Overflow.DROP);
+        doThrow(new IllegalStateException("connection reset")).when(eventRepository).saveAll(any());
+        writer.enqueue(event(1L));
+
+        writer.flush();
+
+        verify(eventRepository, times(2)).saveAll(any());
+        verify(eventRelay, never()).publish(any());
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueue_afterStopWritesInline() {
+        AuditEventWriter writer = writer(AuditProperties.Mode.ASYNC, 10, 10, AuditProperties.Overflow.DROP);
+        Event event = event(1L);
+        writer.start();
+        writer.stop();
+
+        writer.enqueue(event);
+
+        assertThat(writer.depth()).isZero();
+        verify(eventRepository).saveAll(List.of(event));
+        verify(eventRelay).publish(EventMessage.from(event));
+    }
+
+    private AuditEventWriter writer(AuditProperties.Mode mode, int capacity, int batchSize,
+                                    AuditProperties.Overflow overflow) {
+        AuditProperties properties = new AuditProperties(mode, capacity, batchSize, Duration.ofHours(1), overflow,
+                2, Duration.ofMillis(1));
+        return new AuditEventWriter(eventRepository, eventRelay, properties, transactionManager, meterRegistry);
+    }
+
+    private Event event(Long entityId) {
+        return Event.builder()
+                .eventType(EventType.TWEET_CREATED)
+                .entityType("tweet")
+                .entityId(entityId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,9 +1,10 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.auth.PasswordHashingUnavailableException;
+import com.ignacio.twitter.cache.PermissionCache;
 import com.ignacio.twitter.dto.TokenRequest;
 import com.ignacio.twitter.dto.TokenResponse;
 import com.ignacio.twitter.models.UserCredential;
-import com.ignacio.twitter.repositories.AuthorizationRepository;
 import com.ignacio.twitter.repositories.UserCredentialRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +14,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +31,7 @@ class AuthServiceTest {
     private UserCredentialRepository userCredentialRepository;
 
     @Mock
-    private AuthorizationRepository authorizationRepository;
+    private PermissionCache permissionCache;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -48,7 +52,7 @@ class AuthServiceTest {
                 .build();
         when(userCredentialRepository.findByUsername("user")).thenReturn(Optional.of(credential));
         when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
-        when(authorizationRepository.findPermittedActionsByUserId(10L))
+        when(permissionCache.actionsForUser(10L))
                 .thenReturn(List.of("tweet:read"));
         when(jwtTokenService.createToken("user", 10L, List.of("tweet:read"))).thenReturn("token");
 
@@ -58,6 +62,50 @@ class AuthServiceTest {
         assertThat(response.actions()).containsExactly("tweet:read");
     }
 
+    @Test
+    void issueToken_rehashesPasswordStoredAtOutdatedStrength() {
+        UserCredential credential = UserCredential.builder()
+                .userId(12L)
+                .username("user")
+                .passwordHash("$2a$10$oldhash")
+                .passwordSalt("$2a$10$oldhash")
+                .build();
+        when(userCredentialRepository.findByUsername("user")).thenReturn(Optional.of(credential));
+        when(passwordEncoder.matches("pass", "$2a$10$oldhash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$oldhash")).thenReturn(true);
+        when(passwordEncoder.encode("pass")).thenReturn("$2a$12$abcdefghijklmnopqrstuvnewhash");
+        when(permissionCache.actionsForUser(12L)).thenReturn(List.of());
+        when(jwtTokenService.createToken("user", 12L, List.of())).thenReturn("token");
+
+        authService.issueToken(new TokenRequest("user", "pass"));
+
+        verify(userCredentialRepository).updatePasswordHashIfUnchanged(12L, "$2a$10$oldhash",
+                "$2a$12$abcdefghijklmnopqrstuvnewhash", "$2a$12$abcdefghijklmnopqrstuv");
+    }
+
+    @Test
+    void issueToken_succeedsWhenRehashIsShed() {
+        UserCredential credential = UserCredential.builder()
+                .userId(13L)
+                .username("user")
+                .passwordHash("$2a$10$oldhash")
+                .passwordSalt("$2a$10$oldhash")
+                .build();
+        when(userCredentialRepository.findByUsername("user")).thenReturn(Optional.of(credential));
+        when(passwordEncoder.matches("pass", "$2a$10$oldhash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$oldhash")).thenReturn(true);
+        when(passwordEncoder.encode("pass")).thenThrow(new PasswordHashingUnavailableException(Duration.ofSeconds(1)));
+        when(permissionCache.actionsForUser(13L)).thenReturn(List.of());
+        when(jwtTokenService.createToken("user", 13L, List.of())).thenReturn("token");
+
+        TokenResponse response = authService.issueToken(new TokenRequest("user", "pass"));
+
+        assertThat(response.accessToken()).isEqualTo("token");
+        verify(userCredentialRepository, never()).updatePasswordHashIfUnchanged(
+                org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(),
+                org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any());
+    }
+
     @Test
     void issueToken_invalidPassword_throwsUnauthorized() {
         UserCredential credential = UserCredential.builder()
@@ -0,0 +1,93 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.EventPartitionProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitionMaintainerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final EventPartitionProperties properties =
+            new EventPartitionProperties(true, 1, 12, EventPartitionProperties.RetentionAction.DROP);
+
+    @Test
+    void maintain_movesDefaultRowsIntoTheirOwnPartitionAndRetiresThemWhenExpired() {
+        when(jdbcTemplate.queryForList(contains("from events_default"), eq(String.class))).thenReturn(List.of("2020-01"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(false);
+        when(jdbcTemplate.update(contains("insert into events_p2020_01"))).thenReturn(5);
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class)))
+                .thenReturn(List.of("events_default", "events_p2020_01"));
+
+        new EventPartitionMaintainer(jdbcTemplate, transactionManager, properties).maintain();
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute(startsWith("select pg_advisory_xact_lock("));
+        order.verify(jdbcTemplate).execute("create table events_p2020_01 (like events including defaults including constraints)");
+        order.verify(jdbcTemplate).update(contains("delete from events_default where created_at >= '2020-01-01' and created_at < '2020-02-01'"));
+        order.verify(jdbcTemplate).execute("alter table events attach partition events_p2020_01 for values from ('2020-01-01') to ('2020-02-01')");
+        order.verify(jdbcTemplate).execute("alter table events detach partition events_p2020_01");
+        order.verify(jdbcTemplate).execute("drop table events_p2020_01");
+    }
+
+    @Test
+    void maintain_failedPartitionRollsBackToSavepointAndRetentionStillRuns() {
+        String current = EventPartitionMaintainer.partitionName(YearMonth.now());
+        when(jdbcTemplate.queryForList(contains("from events_default"), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(false);
+        // Lenient: the other execute() calls (advisory lock, savepoints, DDL) must fall through to the
+        // default answer instead of tripping strict stubbing on mismatched arguments.
+        lenient().doThrow(new DataIntegrityViolationException("overlap"))
+                .when(jdbcTemplate).execute(startsWith("alter table events attach partition " + current));
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class)))
+                .thenReturn(List.of("events_p2000_01"));
+
+        new EventPartitionMaintainer(jdbcTemplate, transactionManager, properties).maintain();
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute(startsWith("select pg_advisory_xact_lock("));
+        order.verify(jdbcTemplate).execute(startsWith("alter table events attach partition " + current));
+        order.verify(jdbcTemplate).execute("rollback to savepoint create_partition");
+        order.verify(jdbcTemplate).execute("drop table events_p2000_01");
+    }
+
+    @Test
+    void partitionName_usesYearAndMonthSuffix() {
+        assertThat(EventPartitionMaintainer.partitionName(YearMonth.of(2026, 3))).isEqualTo("events_p2026_03");
+    }
+
+    @Test
+    void expiredPartitions_selectsMonthsBeforeTheOldestKept() {
+        List<String> partitions = List.of(
+                "events_default", "events_p2025_01", "events_p2025_02", "events_p2025_03", "events_p2026_04",
+                "events_pbackup");
+
+        assertThat(EventPartitionMaintainer.expiredPartitions(partitions, YearMonth.of(2025, 3)))
+                .containsExactly("events_p2025_01", "events_p2025_02");
+    }
+}
@@ -0,0 +1,172 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.cache.FollowGraphCache;
+import com.ignacio.twitter.configurations.FollowCacheProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.events.FollowChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.models.User;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowServiceImplTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AuditEventWriter auditEventWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private FollowGraphCache followGraphCache = new FollowGraphCache(
+            new FollowCacheProperties(1000, Duration.ofMinutes(5)), new SimpleMeterRegistry());
+
+    @InjectMocks
+    private FollowServiceImpl followService;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void follow_savesEdgeAndPublishesChange() {
+        authenticateAs(1L);
+        when(userRepository.findByIdAndDeletedAtIsNull(2L)).thenReturn(Optional.of(User.builder().id(2L).build()));
+        when(followRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(true);
+
+        followService.follow(2L);
+
+        verify(userRepository).adjustFollowerCount(2L, 1);
+        verify(auditEventWriter).record(any());
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(1L, 2L, EventType.USER_FOLLOWED));
+    }
+
+    @Test
+    void removeAllFollowsOf_unfollowsFolloweesAndDropsFollowers() {
+        when(followRepository.findFolloweeIdsByFollowerId(5L)).thenReturn(new long[]{2L});
+        when(followRepository.deleteByFollowerIdAndFolloweeId(5L, 2L)).thenReturn(1);
+        when(followRepository.findFollowerIdsByFolloweeId(5L)).thenReturn(new long[]{7L, 8L});
+        when(followRepository.deleteByFolloweeId(5L)).thenReturn(2);
+
+        followService.removeAllFollowsOf(5L);
+
+        verify(userRepository).adjustFollowerCount(2L, -1);
+        verify(userRepository).adjustFollowerCount(5L, -2);
+        verify(auditEventWriter).record(any());
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(5L, 2L, EventType.USER_UNFOLLOWED));
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(7L, 5L, EventType.USER_UNFOLLOWED));
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(8L, 5L, EventType.USER_UNFOLLOWED));
+    }
+
+    @Test
+    void follow_existingEdge_isNoOp() {
+        authenticateAs(1L);
+        when(userRepository.findByIdAndDeletedAtIsNull(2L)).thenReturn(Optional.of(User.builder().id(2L).build()));
+        when(followRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(false);
+
+        followService.follow(2L);
+
+        verify(userRepository, never()).adjustFollowerCount(any(), anyLong());
+        verify(auditEventWriter, never()).record(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void follow_self_throwsBadRequest() {
+        authenticateAs(3L);
+
+        assertThatThrownBy(() -> followService.follow(3L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("themselves");
+    }
+
+    @Test
+    void follow_withoutAuthenticatedUser_throws() {
+        assertThatThrownBy(() -> followService.follow(2L))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void unfollow_missingEdge_doesNotPublish() {
+        authenticateAs(1L);
+        when(followRepository.deleteByFollowerIdAndFolloweeId(1L, 2L)).thenReturn(0);
+
+        followService.unfollow(2L);
+
+        verify(auditEventWriter, never()).record(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void listFollowers_returnsCursorOfLastUser() {
+        when(followRepository.findFollowersPage(5L, null, 3)).thenReturn(List.of(
+                new UserSummary(1L, "a"), new UserSummary(2L, "b"), new UserSummary(3L, "c")));
+
+        CursorPage<UserSummary> page = followService.listFollowers(5L, 2, null);
+
+        assertThat(page.items()).extracting(UserSummary::id).containsExactly(1L, 2L);
+        assertThat(IdCursor.decode(page.nextCursor())).isEqualTo(new IdCursor(2L));
+    }
+
+    @Test
+    void listFollowing_missingUser_throws() {
+        when(followRepository.findFollowingPage(6L, null, 21)).thenReturn(List.of());
+        when(userRepository.findByIdAndDeletedAtIsNull(6L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> followService.listFollowing(6L, 20, null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void isFollowing_answersFromCachedAdjacencyList() {
+        when(followRepository.findFolloweeIdsByFollowerId(1L)).thenReturn(new long[]{2L, 5L, 9L});
+
+        assertThat(followService.isFollowing(1L, 5L)).isTrue();
+        assertThat(followService.isFollowing(1L, 6L)).isFalse();
+
+        verify(followRepository, times(1)).findFolloweeIdsByFollowerId(1L);
+    }
+
+    private void authenticateAs(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, List.of("user:write"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
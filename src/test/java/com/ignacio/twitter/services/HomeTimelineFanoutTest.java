@@ -0,0 +1,81 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.cache.FollowGraphCache;
+import com.ignacio.twitter.cache.HomeTimelineStore;
+import com.ignacio.twitter.configurations.FollowCacheProperties;
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HomeTimelineFanoutTest {
+
+    private static final TimelineProperties PROPERTIES =
+            new TimelineProperties(2, 800, 100, Duration.ofMinutes(5), 1, 10);
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private HomeTimelineStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private HomeTimelineFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new HomeTimelineStore(PROPERTIES, meterRegistry);
+        FollowGraphCache followGraphCache = new FollowGraphCache(
+                new FollowCacheProperties(1000, Duration.ofMinutes(5)), meterRegistry);
+        fanout = new HomeTimelineFanout(store, followGraphCache, followRepository, userRepository,
+                PROPERTIES, meterRegistry);
+    }
+
+    @Test
+    void onTweetChanged_pushesNewTweetIntoMaterializedFollowerTimelines() {
+        store.read(2L, id -> new long[]{1L}, null, 10);
+        when(userRepository.findFollowerCount(1L)).thenReturn(2L);
+        when(followRepository.findFollowerIdsByFolloweeId(1L)).thenReturn(new long[]{2L, 3L});
+
+        fanout.onTweetChanged(new TweetChangedEvent(5L, 1L, EventType.TWEET_CREATED));
+
+        assertThat(store.read(2L, id -> new long[0], null, 10)).containsExactly(5L, 1L);
+        assertThat(meterRegistry.counter("timeline.fanout.deliveries").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onTweetChanged_skipsFanOutAboveFollowerThreshold() {
+        when(userRepository.findFollowerCount(1L)).thenReturn(3L);
+
+        fanout.onTweetChanged(new TweetChangedEvent(5L, 1L, EventType.TWEET_CREATED));
+
+        verify(followRepository, never()).findFollowerIdsByFolloweeId(any());
+        assertThat(meterRegistry.counter("timeline.fanout.skipped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onTweetChanged_ignoresUpdates() {
+        fanout.onTweetChanged(new TweetChangedEvent(5L, 1L, EventType.TWEET_UPDATED));
+
+        verifyNoInteractions(userRepository, followRepository);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ignacio.twitter.services;
 
 import com.ignacio.twitter.auth.JwtKeyProvider;
+import com.ignacio.twitter.auth.Permission;
 import com.ignacio.twitter.configurations.JwtProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -13,27 +14,55 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class JwtTokenServiceTest {
 
+    private static final String SECRET = "test-secret-test-secret-test-secret";
+
     @Test
-    void createToken_includesActionsAndExpiry() {
-        String secret = "test-secret-test-secret-test-secret";
-        JwtTokenService service = new JwtTokenService(new JwtProperties(secret, 60));
-        service.init();
+    void createToken_includesPermissionMaskAndExpiry() {
+        Claims claims = parse(issue(false, List.of("tweet:read", "user:write")));
 
-        String token = service.createToken("adal", 7L, List.of("tweet:read"));
+        assertThat(claims.getSubject()).isEqualTo("adal");
+        assertThat(((Number) claims.get("userId")).longValue()).isEqualTo(7L);
+        assertThat(((Number) claims.get("perm")).longValue())
+                .isEqualTo(Permission.TWEET_READ.mask() | Permission.USER_WRITE.mask());
+        assertThat(claims).doesNotContainKey("actions");
+        assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
+    }
 
-        Key key = JwtKeyProvider.buildSigningKey(secret);
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @Test
+    void createToken_keepsActionsWithoutBitByName() {
+        Claims claims = parse(issue(false, List.of("tweet:read", "reports:read")));
 
         @SuppressWarnings("unchecked")
         List<String> actions = (List<String>) claims.get("actions");
 
-        assertThat(claims.getSubject()).isEqualTo("adal");
-        assertThat(((Number) claims.get("userId")).longValue()).isEqualTo(7L);
-        assertThat(actions).contains("tweet:read");
-        assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
+        assertThat(((Number) claims.get("perm")).longValue()).isEqualTo(Permission.TWEET_READ.mask());
+        assertThat(actions).containsExactly("reports:read");
+    }
+
+    @Test
+    void createToken_includesFullActionListInLegacyMode() {
+        Claims claims = parse(issue(true, List.of("tweet:read", "user:write")));
+
+        @SuppressWarnings("unchecked")
+        List<String> actions = (List<String>) claims.get("actions");
+
+        assertThat(actions).containsExactly("tweet:read", "user:write");
+        assertThat(((Number) claims.get("perm")).longValue())
+                .isEqualTo(Permission.TWEET_READ.mask() | Permission.USER_WRITE.mask());
+    }
+
+    private static String issue(boolean legacyActionsClaim, List<String> actions) {
+        JwtTokenService service = new JwtTokenService(new JwtProperties(SECRET, 60, 0, legacyActionsClaim));
+        service.init();
+        return service.createToken("adal", 7L, actions);
+    }
+
+    private static Claims parse(String token) {
+        Key key = JwtKeyProvider.buildSigningKey(SECRET);
+        return Jwts.parser()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
     }
 }
@@ -0,0 +1,59 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.ArchiveProperties;
+import com.ignacio.twitter.repositories.ArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeleteArchiverTest {
+
+    @Mock
+    private ArchiveRepository archiveRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void drain_stopsAtFirstPartialBatchAndCountsRows() {
+        SoftDeleteArchiver archiver = archiver(100, 10);
+        when(archiveRepository.archiveTweets(any(), eq(100))).thenReturn(100, 100, 40);
+
+        long moved = archiver.drain("tweets", archiveRepository::archiveTweets, LocalDateTime.now());
+
+        assertThat(moved).isEqualTo(240);
+        verify(archiveRepository, times(3)).archiveTweets(any(), eq(100));
+        assertThat(meterRegistry.get("archive.rows.moved").tag("table", "tweets").counter().count())
+                .isEqualTo(240.0);
+        assertThat(meterRegistry.get("archive.batch").tag("table", "tweets").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void drain_boundsBatchesPerRun() {
+        SoftDeleteArchiver archiver = archiver(50, 2);
+        when(archiveRepository.archiveUsers(any(), eq(50))).thenReturn(50);
+
+        long moved = archiver.drain("users", archiveRepository::archiveUsers, LocalDateTime.now());
+
+        assertThat(moved).isEqualTo(100);
+        verify(archiveRepository, times(2)).archiveUsers(any(), eq(50));
+    }
+
+    private SoftDeleteArchiver archiver(int batchSize, int maxBatches) {
+        return new SoftDeleteArchiver(archiveRepository,
+                new ArchiveProperties(true, Duration.ofDays(30), batchSize, Duration.ZERO, maxBatches),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.auth.AuthenticatedUser;
+import com.ignacio.twitter.cache.HomeTimelineStore;
+import com.ignacio.twitter.configurations.TimelineProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetLookupResponse;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.repositories.FollowRepository;
+import com.ignacio.twitter.repositories.TweetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceImplTest {
+
+    private static final TimelineProperties PROPERTIES =
+            new TimelineProperties(1000, 800, 100, Duration.ofMinutes(5), 1, 10);
+
+    @Mock
+    private TweetRepository tweetRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private TweetService tweetService;
+
+    private TimelineServiceImpl timelineService;
+
+    @BeforeEach
+    void setUp() {
+        HomeTimelineStore store = new HomeTimelineStore(PROPERTIES, new SimpleMeterRegistry());
+        timelineService = new TimelineServiceImpl(store, tweetRepository, followRepository, tweetService, PROPERTIES);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void homeTimeline_mergesPushedAndCelebrityTweetsNewestFirst() {
+        authenticateAs(1L);
+        when(tweetRepository.findRecentIdsForHomeTimeline(1L, 800)).thenReturn(List.of(9L, 6L, 2L));
+        when(followRepository.findFolloweeIdsWithFollowerCountAbove(1L, 1000)).thenReturn(List.of(50L));
+        when(tweetRepository.findIdsByAuthorIdInAndDeletedAtIsNull(List.of(50L), null, 3)).thenReturn(List.of(7L, 6L));
+        when(tweetService.lookupTweets(List.of(9L, 7L)))
+                .thenReturn(new TweetLookupResponse(List.of(view(9L), view(7L)), List.of()));
+
+        CursorPage<TweetView> page = timelineService.homeTimeline(2, null);
+
+        assertThat(page.items()).extracting(TweetView::id).containsExactly(9L, 7L);
+        assertThat(IdCursor.decode(page.nextCursor())).isEqualTo(new IdCursor(7L));
+    }
+
+    @Test
+    void homeTimeline_lastPageHasNoCursor() {
+        authenticateAs(1L);
+        when(tweetRepository.findRecentIdsForHomeTimeline(1L, 800)).thenReturn(List.of(9L, 6L, 2L));
+        when(followRepository.findFolloweeIdsWithFollowerCountAbove(1L, 1000)).thenReturn(List.of());
+        when(tweetRepository.findIdsByAuthorIdInAndDeletedAtIsNull(List.of(), 6L, 21)).thenReturn(List.of());
+        when(tweetService.lookupTweets(List.of(2L)))
+                .thenReturn(new TweetLookupResponse(List.of(view(2L)), List.of()));
+
+        CursorPage<TweetView> page = timelineService.homeTimeline(20, new IdCursor(6L));
+
+        assertThat(page.items()).extracting(TweetView::id).containsExactly(2L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void homeTimeline_requiresAuthenticatedUser() {
+        assertThatThrownBy(() -> timelineService.homeTimeline(20, null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private TweetView view(Long id) {
+        return new TweetView(id, "tweet " + id, LocalDateTime.now(), new UserSummary(50L, "celebrity"), 0L, 0L);
+    }
+
+    private void authenticateAs(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, List.of("tweet:read"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
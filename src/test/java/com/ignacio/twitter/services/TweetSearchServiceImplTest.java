@@ -0,0 +1,79 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.SearchProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.IdCursor;
+import com.ignacio.twitter.dto.TweetLookupResponse;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.search.TweetSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TweetSearchServiceImplTest {
+
+    @Mock
+    private TweetService tweetService;
+
+    private TweetSearchIndex index;
+    private TweetSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        index = new TweetSearchIndex(meterRegistry);
+        searchService = new TweetSearchServiceImpl(index, tweetService, new SearchProperties(true, 3), meterRegistry);
+    }
+
+    @Test
+    void searchTweets_whileWarmingUp_returnsServiceUnavailable() {
+        assertThatThrownBy(() -> searchService.searchTweets("hello", 20, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void searchTweets_rejectsEmptyAndOversizedQueries() {
+        index.markReady();
+
+        assertThatThrownBy(() -> searchService.searchTweets(" ,. ", 20, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> searchService.searchTweets("a b c d", 20, null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void searchTweets_dropsStaleHitsAndPagesPastThem() {
+        index.add(1, "java tips");
+        index.add(2, "java tricks");
+        index.add(3, "java news");
+        index.markReady();
+        when(tweetService.lookupTweets(List.of(3L, 2L)))
+                .thenReturn(new TweetLookupResponse(List.of(view(3L, "edited away"), view(2L, "java tricks")), List.of()));
+        when(tweetService.lookupTweets(List.of(1L)))
+                .thenReturn(new TweetLookupResponse(List.of(view(1L, "java tips")), List.of()));
+
+        CursorPage<TweetView> page = searchService.searchTweets("Java", 1, null);
+
+        assertThat(page.items()).extracting(TweetView::id).containsExactly(2L);
+        assertThat(IdCursor.decode(page.nextCursor())).isEqualTo(new IdCursor(2L));
+    }
+
+    private TweetView view(Long id, String content) {
+        return new TweetView(id, content, LocalDateTime.now(), new UserSummary(1L, "ada"), 0L, 0L);
+    }
+}
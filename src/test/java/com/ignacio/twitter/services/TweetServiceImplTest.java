@@ -1,25 +1,43 @@
 package com.ignacio.twitter.services;
 
+import com.ignacio.twitter.cache.TweetCache;
+import com.ignacio.twitter.configurations.TweetCacheProperties;
+import com.ignacio.twitter.dto.CursorPage;
+import com.ignacio.twitter.dto.TweetBatchAction;
+import com.ignacio.twitter.dto.TweetBatchOperation;
+import com.ignacio.twitter.dto.TweetBatchResponse;
+import com.ignacio.twitter.dto.TweetBatchResult;
+import com.ignacio.twitter.dto.TweetCursor;
+import com.ignacio.twitter.dto.TweetLookupResponse;
 import com.ignacio.twitter.dto.TweetRequest;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserSummary;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.EventType;
 import com.ignacio.twitter.models.Tweet;
 import com.ignacio.twitter.models.User;
-import com.ignacio.twitter.repositories.EventRepository;
 import com.ignacio.twitter.repositories.TweetRepository;
 import com.ignacio.twitter.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,35 +51,128 @@ class TweetServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private EventRepository eventRepository;
+    private AuditEventWriter auditEventWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TweetCache tweetCache = new TweetCache(
+            new TweetCacheProperties(100, Duration.ofMinutes(1), Duration.ofSeconds(5)),
+            new SimpleMeterRegistry());
 
     @InjectMocks
     private TweetServiceImpl tweetService;
 
     @Test
     void listTweets_returnsNonDeleted() {
-        Tweet tweet = Tweet.builder().id(1L).content("hello").build();
-        when(tweetRepository.findAllByDeletedAtIsNull()).thenReturn(List.of(tweet));
+        TweetView tweet = view(1L, "hello", LocalDateTime.now());
+        when(tweetRepository.findPageByDeletedAtIsNull(null, 3)).thenReturn(List.of(tweet));
+
+        CursorPage<TweetView> page = tweetService.listTweets(2, null);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+        verify(tweetRepository).findPageByDeletedAtIsNull(null, 3);
+    }
+
+    @Test
+    void listTweets_returnsCursorOfLastItemWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        TweetView first = view(3L, "a", now);
+        TweetView second = view(2L, "b", now.minusMinutes(1));
+        TweetView extra = view(1L, "c", now.minusMinutes(2));
+        TweetCursor after = new TweetCursor(now.plusMinutes(1), 4L);
+        when(tweetRepository.findPageByDeletedAtIsNull(after, 3)).thenReturn(List.of(first, second, extra));
+
+        CursorPage<TweetView> page = tweetService.listTweets(2, after);
+
+        assertThat(page.items()).extracting(TweetView::id).containsExactly(3L, 2L);
+        assertThat(TweetCursor.decode(page.nextCursor())).isEqualTo(new TweetCursor(second.timestamp(), 2L));
+    }
+
+    @Test
+    void listTweetsByAuthor_returnsAuthorPage() {
+        TweetView tweet = view(7L, "mine", LocalDateTime.now());
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(12L, null, 21)).thenReturn(List.of(tweet));
+
+        CursorPage<TweetView> page = tweetService.listTweetsByAuthor(12L, 20, null);
+
+        assertThat(page.items()).containsExactly(tweet);
+        verify(userRepository, never()).findByIdAndDeletedAtIsNull(12L);
+    }
 
-        List<Tweet> tweets = tweetService.listTweets();
+    @Test
+    void listTweetsByAuthor_missingUser_throws() {
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(13L, null, 21)).thenReturn(List.of());
+        when(userRepository.findByIdAndDeletedAtIsNull(13L)).thenReturn(Optional.empty());
 
-        assertThat(tweets).hasSize(1);
-        verify(tweetRepository).findAllByDeletedAtIsNull();
+        assertThatThrownBy(() -> tweetService.listTweetsByAuthor(13L, 20, null))
+                .isInstanceOf(ResponseStatusException.class);
     }
 
     @Test
     void getTweet_returnsTweet() {
-        Tweet tweet = Tweet.builder().id(2L).content("hello").build();
-        when(tweetRepository.findByIdAndDeletedAtIsNull(2L)).thenReturn(Optional.of(tweet));
+        TweetView tweet = view(2L, "hello", LocalDateTime.now());
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(2L)).thenReturn(Optional.of(tweet));
+
+        TweetView result = tweetService.getTweet(2L);
+
+        assertThat(result.id()).isEqualTo(2L);
+    }
+
+    @Test
+    void getTweet_servesRepeatReadsFromCache() {
+        TweetView tweet = view(8L, "viral", LocalDateTime.now());
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(8L)).thenReturn(Optional.of(tweet));
+
+        tweetService.getTweet(8L);
+        TweetView again = tweetService.getTweet(8L);
+
+        assertThat(again).isEqualTo(tweet);
+        verify(tweetRepository, times(1)).findViewByIdAndDeletedAtIsNull(8L);
+    }
+
+    @Test
+    void getTweet_cachesMissingTweets() {
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> tweetService.getTweet(9L)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> tweetService.getTweet(9L)).isInstanceOf(ResponseStatusException.class);
+
+        verify(tweetRepository, times(1)).findViewByIdAndDeletedAtIsNull(9L);
+    }
+
+    @Test
+    void lookupTweets_preservesRequestOrderAndReportsMissing() {
+        TweetView first = view(21L, "first", LocalDateTime.now());
+        TweetView second = view(22L, "second", LocalDateTime.now());
+        when(tweetRepository.findViewsByIdInAndDeletedAtIsNull(List.of(22L, 23L, 21L)))
+                .thenReturn(List.of(first, second));
+
+        TweetLookupResponse response = tweetService.lookupTweets(List.of(22L, 23L, 21L, 22L));
+
+        assertThat(response.tweets()).extracting(TweetView::id).containsExactly(22L, 21L);
+        assertThat(response.missingIds()).containsExactly(23L);
+    }
 
-        Tweet result = tweetService.getTweet(2L);
+    @Test
+    void lookupTweets_onlyQueriesIdsNotAlreadyCached() {
+        TweetView cached = view(24L, "cached", LocalDateTime.now());
+        TweetView loaded = view(25L, "loaded", LocalDateTime.now());
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(24L)).thenReturn(Optional.of(cached));
+        when(tweetRepository.findViewsByIdInAndDeletedAtIsNull(List.of(25L))).thenReturn(List.of(loaded));
+        tweetService.getTweet(24L);
+
+        TweetLookupResponse response = tweetService.lookupTweets(List.of(24L, 25L));
 
-        assertThat(result.getId()).isEqualTo(2L);
+        assertThat(response.tweets()).containsExactly(cached, loaded);
+        assertThat(response.missingIds()).isEmpty();
     }
 
     @Test
     void getTweet_missing_throws() {
-        when(tweetRepository.findByIdAndDeletedAtIsNull(3L)).thenReturn(Optional.empty());
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(3L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> tweetService.getTweet(3L))
                 .isInstanceOf(ResponseStatusException.class);
@@ -75,38 +186,143 @@ class TweetServiceImplTest {
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         TweetRequest request = new TweetRequest("hello", 10L);
-        Tweet created = tweetService.createTweet(request);
+        TweetView created = tweetService.createTweet(request);
 
-        assertThat(created.getContent()).isEqualTo("hello");
-        assertThat(created.getAuthor().getId()).isEqualTo(10L);
-        assertThat(created.getTimestamp()).isNotNull();
+        assertThat(created.content()).isEqualTo("hello");
+        assertThat(created.author().id()).isEqualTo(10L);
+        assertThat(created.author().handle()).isEqualTo("ab");
+        assertThat(created.timestamp()).isNotNull();
     }
 
     @Test
     void updateTweet_updatesFields() {
+        TweetView existing = new TweetView(4L, "old", LocalDateTime.now(), 11L, "ab", 2L, 0L);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(4L)).thenReturn(Optional.of(existing));
+        when(tweetRepository.updateIfVersionMatches(4L, 2L, "updated", 11L)).thenReturn(true);
+
+        TweetRequest request = new TweetRequest("updated", 11L);
+        TweetView updated = tweetService.updateTweet(4L, request, null);
+
+        assertThat(updated.content()).isEqualTo("updated");
+        assertThat(updated.author().id()).isEqualTo(11L);
+        assertThat(updated.version()).isEqualTo(3L);
+        verify(userRepository, never()).findByIdAndDeletedAtIsNull(11L);
+        verify(eventPublisher).publishEvent(new TweetChangedEvent(4L, 11L, EventType.TWEET_UPDATED, "old", "updated"));
+    }
+
+    @Test
+    void updateTweet_rejectsStaleIfMatchWithoutWriting() {
+        TweetView existing = new TweetView(6L, "old", LocalDateTime.now(), 11L, "ab", 5L, 0L);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(6L)).thenReturn(Optional.of(existing));
+
+        assertThatThrownBy(() -> tweetService.updateTweet(6L, new TweetRequest("updated", 11L), 4L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("412");
+        verify(tweetRepository, never()).updateIfVersionMatches(6L, 5L, "updated", 11L);
+    }
+
+    @Test
+    void updateTweet_returnsPreconditionFailedWhenConcurrentWriterWins() {
+        TweetView existing = new TweetView(7L, "old", LocalDateTime.now(), 11L, "ab", 1L, 0L);
         User author = User.builder().id(11L).email("a@b.com").handle("ab").build();
-        Tweet existing = Tweet.builder().id(4L).content("old").author(author).build();
-        when(tweetRepository.findByIdAndDeletedAtIsNull(4L)).thenReturn(Optional.of(existing));
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(7L)).thenReturn(Optional.of(existing));
+        when(tweetRepository.updateIfVersionMatches(7L, 1L, "updated", 11L)).thenReturn(false);
         when(userRepository.findByIdAndDeletedAtIsNull(11L)).thenReturn(Optional.of(author));
-        when(tweetRepository.save(existing)).thenReturn(existing);
 
-        TweetRequest request = new TweetRequest("updated", 11L);
-        Tweet updated = tweetService.updateTweet(4L, request);
+        assertThatThrownBy(() -> tweetService.updateTweet(7L, new TweetRequest("updated", 11L), 1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("412");
+        verify(eventPublisher, never()).publishEvent(org.mockito.ArgumentMatchers.any(TweetChangedEvent.class));
+    }
+
+    @Test
+    void updateTweet_returnsNotFoundForUnknownAuthor() {
+        TweetView existing = new TweetView(8L, "old", LocalDateTime.now(), 11L, "ab", 1L, 0L);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(8L)).thenReturn(Optional.of(existing));
+        when(tweetRepository.updateIfVersionMatches(8L, 1L, "updated", 99L)).thenReturn(false);
+        when(userRepository.findByIdAndDeletedAtIsNull(99L)).thenReturn(Optional.empty());
 
-        assertThat(updated.getContent()).isEqualTo("updated");
-        assertThat(updated.getAuthor().getId()).isEqualTo(11L);
+        assertThatThrownBy(() -> tweetService.updateTweet(8L, new TweetRequest("updated", 99L), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("User not found");
     }
 
     @Test
     void deleteTweet_setsDeletedAt() {
-        Tweet existing = Tweet.builder().id(5L).content("hello").build();
-        when(tweetRepository.findByIdAndDeletedAtIsNull(5L)).thenReturn(Optional.of(existing));
+        TweetView existing = new TweetView(5L, "hello", LocalDateTime.now(), 12L, "cd", 0L, 0L);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(5L)).thenReturn(Optional.of(existing));
+        when(tweetRepository.softDeleteIfVersionMatches(
+                org.mockito.ArgumentMatchers.eq(5L), org.mockito.ArgumentMatchers.eq(0L),
+                org.mockito.ArgumentMatchers.any(LocalDateTime.class))).thenReturn(true);
+
+        tweetService.deleteTweet(5L, 0L);
+
+        verify(eventPublisher).publishEvent(new TweetChangedEvent(5L, 12L, EventType.TWEET_DELETED, "hello", null));
+    }
+
+    @Test
+    void applyBatch_appliesValidItemsAndReportsFailuresPerItem() {
+        User author = User.builder().id(30L).email("batch@b.com").handle("batch").build();
+        Tweet editable = Tweet.builder().id(31L).content("before").author(author).version(2L).build();
+        Tweet removable = Tweet.builder().id(32L).content("bye").author(author).build();
+        when(userRepository.findAllByIdInAndDeletedAtIsNull(Set.of(30L, 404L))).thenReturn(List.of(author));
+        when(tweetRepository.findAllByIdInAndDeletedAtIsNull(Set.of(31L, 32L, 33L)))
+                .thenReturn(List.of(editable, removable));
+        when(tweetRepository.save(org.mockito.ArgumentMatchers.any(Tweet.class))).thenAnswer(invocation -> {
+            Tweet tweet = invocation.getArgument(0);
+            tweet.setId(50L);
+            return tweet;
+        });
+        when(tweetRepository.updateIfVersionMatches(31L, 2L, "after", 30L)).thenReturn(true);
+        when(tweetRepository.softDeleteIfVersionMatches(
+                org.mockito.ArgumentMatchers.eq(32L), org.mockito.ArgumentMatchers.eq(0L),
+                org.mockito.ArgumentMatchers.any(LocalDateTime.class))).thenReturn(true);
+
+        TweetBatchResponse response = tweetService.applyBatch(List.of(
+                new TweetBatchOperation(TweetBatchAction.CREATE, null, "fresh", 30L, null),
+                new TweetBatchOperation(TweetBatchAction.UPDATE, 31L, "after", 30L, null),
+                new TweetBatchOperation(TweetBatchAction.DELETE, 32L, null, null, null),
+                new TweetBatchOperation(TweetBatchAction.DELETE, 33L, null, null, null),
+                new TweetBatchOperation(TweetBatchAction.CREATE, null, "orphan", 404L, null),
+                new TweetBatchOperation(TweetBatchAction.UPDATE, null, "no id", 30L, null),
+                new TweetBatchOperation(TweetBatchAction.DELETE, 32L, null, null, null)));
+
+        assertThat(response.results()).extracting(TweetBatchResult::status)
+                .containsExactly(201, 200, 204, 404, 404, 400, 404);
+        assertThat(response.results().get(0).id()).isEqualTo(50L);
+        verify(tweetRepository, times(1)).save(org.mockito.ArgumentMatchers.any(Tweet.class));
+        verify(auditEventWriter, times(3)).record(org.mockito.ArgumentMatchers.any());
+        verify(eventPublisher).publishEvent(new TweetChangedEvent(31L, 30L, EventType.TWEET_UPDATED, "before", "after"));
+        verify(eventPublisher).publishEvent(new TweetChangedEvent(32L, 30L, EventType.TWEET_DELETED, "bye", null));
+    }
 
-        tweetService.deleteTweet(5L);
+    @Test
+    void applyBatch_reportsVersionConflictsPerItem() {
+        User author = User.builder().id(30L).email("batch@b.com").handle("batch").build();
+        Tweet raced = Tweet.builder().id(41L).content("before").author(author).version(1L).build();
+        Tweet stale = Tweet.builder().id(42L).content("old").author(author).version(5L).build();
+        Tweet fine = Tweet.builder().id(43L).content("ok").author(author).version(0L).build();
+        when(userRepository.findAllByIdInAndDeletedAtIsNull(Set.of(30L))).thenReturn(List.of(author));
+        when(tweetRepository.findAllByIdInAndDeletedAtIsNull(Set.of(41L, 42L, 43L)))
+                .thenReturn(List.of(raced, stale, fine));
+        when(tweetRepository.updateIfVersionMatches(41L, 1L, "mine", 30L)).thenReturn(false);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(41L)).thenReturn(Optional.of(view(41L, "theirs", LocalDateTime.now())));
+        when(tweetRepository.softDeleteIfVersionMatches(
+                org.mockito.ArgumentMatchers.eq(42L), org.mockito.ArgumentMatchers.eq(4L),
+                org.mockito.ArgumentMatchers.any(LocalDateTime.class))).thenReturn(false);
+        when(tweetRepository.findViewByIdAndDeletedAtIsNull(42L)).thenReturn(Optional.of(view(42L, "old", LocalDateTime.now())));
+        when(tweetRepository.updateIfVersionMatches(43L, 0L, "still ok", 30L)).thenReturn(true);
+
+        TweetBatchResponse response = tweetService.applyBatch(List.of(
+                new TweetBatchOperation(TweetBatchAction.UPDATE, 41L, "mine", 30L, null),
+                new TweetBatchOperation(TweetBatchAction.DELETE, 42L, null, null, 4L),
+                new TweetBatchOperation(TweetBatchAction.UPDATE, 43L, "still ok", 30L, null)));
+
+        assertThat(response.results()).extracting(TweetBatchResult::status).containsExactly(409, 412, 200);
+        verify(auditEventWriter, times(1)).record(org.mockito.ArgumentMatchers.any());
+    }
 
-        ArgumentCaptor<Tweet> captor = ArgumentCaptor.forClass(Tweet.class);
-        verify(tweetRepository).save(captor.capture());
-        LocalDateTime deletedAt = captor.getValue().getDeletedAt();
-        assertThat(deletedAt).isNotNull();
+    private TweetView view(Long id, String content, LocalDateTime timestamp) {
+        return new TweetView(id, content, timestamp, new UserSummary(1L, "author"), 0L, 0L);
     }
 }
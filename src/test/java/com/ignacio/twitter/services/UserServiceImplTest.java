@@ -1,9 +1,9 @@
 package com.ignacio.twitter.services;
 
 import com.ignacio.twitter.dto.UserRequest;
+import com.ignacio.twitter.events.UserChangedEvent;
 import com.ignacio.twitter.models.User;
 import com.ignacio.twitter.models.UserCredential;
-import com.ignacio.twitter.repositories.EventRepository;
 import com.ignacio.twitter.repositories.RoleRepository;
 import com.ignacio.twitter.repositories.UserCredentialRepository;
 import com.ignacio.twitter.repositories.UserRepository;
@@ -13,6 +13,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -41,7 +42,16 @@ class UserServiceImplTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private EventRepository eventRepository;
+    private AuditEventWriter auditEventWriter;
+
+    @Mock
+    private UserTweetCascade userTweetCascade;
+
+    @Mock
+    private FollowService followService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -118,6 +128,7 @@ class UserServiceImplTest {
 
         assertThat(updated.getEmail()).isEqualTo("new@x.com");
         assertThat(updated.getHandle()).isEqualTo("new");
+        verify(eventPublisher).publishEvent(new UserChangedEvent(4L));
     }
 
     @Test
@@ -131,6 +142,8 @@ class UserServiceImplTest {
         verify(userRepository).save(captor.capture());
         LocalDateTime deletedAt = captor.getValue().getDeletedAt();
         assertThat(deletedAt).isNotNull();
+        verify(userTweetCascade).deleteTweetsOf(5L, null, deletedAt);
+        verify(followService).removeAllFollowsOf(5L);
     }
 
     @Test
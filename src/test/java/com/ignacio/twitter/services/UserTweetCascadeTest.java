@@ -0,0 +1,206 @@
+package com.ignacio.twitter.services;
+
+import com.ignacio.twitter.configurations.UserDeletionProperties;
+import com.ignacio.twitter.dto.PendingUserDeletion;
+import com.ignacio.twitter.dto.TweetView;
+import com.ignacio.twitter.dto.UserDeletionStatus;
+import com.ignacio.twitter.events.TweetChangedEvent;
+import com.ignacio.twitter.models.Event;
+import com.ignacio.twitter.models.EventType;
+import com.ignacio.twitter.repositories.TweetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserTweetCascadeTest {
+
+    private static final LocalDateTime DELETED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    @Mock
+    private TweetRepository tweetRepository;
+
+    @Mock
+    private AuditEventWriter auditEventWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @Test
+    void deleteTweetsOf_smallAccountCompletesInline() {
+        UserTweetCascade cascade = cascade(2);
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2))
+                .thenReturn(List.of(view(1L, "only")));
+
+        UserDeletionStatus status = cascade.deleteTweetsOf(7L, 3L, DELETED_AT);
+
+        assertThat(status.state()).isEqualTo(UserDeletionStatus.State.COMPLETED);
+        assertThat(status.tweetsDeleted()).isEqualTo(1);
+        verify(tweetRepository).softDeleteByIdIn(List.of(1L), DELETED_AT);
+        verify(eventPublisher).publishEvent(new TweetChangedEvent(1L, 7L, EventType.TWEET_DELETED, "only", null));
+        ArgumentCaptor<Event> audit = ArgumentCaptor.forClass(Event.class);
+        verify(auditEventWriter).record(audit.capture());
+        assertThat(audit.getValue().getEventType()).isEqualTo(EventType.USER_TWEETS_DELETED);
+        assertThat(audit.getValue().getEntityId()).isEqualTo(7L);
+        assertThat(audit.getValue().getActorUserId()).isEqualTo(3L);
+    }
+
+    @Test
+    void deleteTweetsOf_largeAccountContinuesInChunksWithOneSummaryEvent() {
+        UserTweetCascade cascade = cascade(2);
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2)).thenReturn(
+                List.of(view(1L, "a"), view(2L, "b")),
+                List.of(view(3L, "c"), view(4L, "d")),
+                List.of(view(5L, "e")));
+
+        UserDeletionStatus first = cascade.deleteTweetsOf(7L, null, DELETED_AT);
+        assertThat(first.state()).isEqualTo(UserDeletionStatus.State.RUNNING);
+        assertThat(first.tweetsDeleted()).isEqualTo(2);
+
+        assertThat(submitted).hasSize(1);
+        submitted.remove(0).run();
+
+        UserDeletionStatus finished = cascade.getStatus(7L).orElseThrow();
+        assertThat(finished.state()).isEqualTo(UserDeletionStatus.State.COMPLETED);
+        assertThat(finished.tweetsDeleted()).isEqualTo(5);
+        verify(tweetRepository, times(3)).softDeleteByIdIn(any(), any());
+        verify(eventPublisher, times(5)).publishEvent(any(TweetChangedEvent.class));
+        verify(auditEventWriter, times(1)).record(any());
+    }
+
+    @Test
+    void deleteTweetsOf_forgetsJobWhenCallerRollsBack() {
+        UserTweetCascade cascade = cascade(2);
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2))
+                .thenReturn(List.of(view(1L, "a"), view(2L, "b")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cascade.deleteTweetsOf(7L, null, DELETED_AT);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cascade.getStatus(7L)).isEmpty();
+    }
+
+    @Test
+    void resumeUnfinished_picksUpDeletedUserWithLiveTweets() {
+        UserTweetCascade cascade = cascade(2);
+        when(tweetRepository.findDeletedAuthorsWithLiveTweets(100))
+                .thenReturn(List.of(new PendingUserDeletion(7L, DELETED_AT)));
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2))
+                .thenReturn(List.of(view(1L, "left behind")));
+
+        cascade.resumeUnfinished();
+        assertThat(cascade.getStatus(7L)).get()
+                .extracting(UserDeletionStatus::state).isEqualTo(UserDeletionStatus.State.RUNNING);
+        submitted.remove(0).run();
+
+        assertThat(cascade.getStatus(7L)).get()
+                .extracting(UserDeletionStatus::state).isEqualTo(UserDeletionStatus.State.COMPLETED);
+        verify(tweetRepository).softDeleteByIdIn(List.of(1L), DELETED_AT);
+        verify(auditEventWriter).record(any());
+    }
+
+    @Test
+    void resumeUnfinished_skipsCascadeStillRunning() {
+        UserTweetCascade cascade = cascade(2);
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2))
+                .thenReturn(List.of(view(1L, "a"), view(2L, "b")));
+        when(tweetRepository.findDeletedAuthorsWithLiveTweets(100))
+                .thenReturn(List.of(new PendingUserDeletion(7L, DELETED_AT)));
+        cascade.deleteTweetsOf(7L, null, DELETED_AT);
+
+        cascade.resumeUnfinished();
+
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    void resumeUnfinished_retriesCascadeRejectedByFullPool() {
+        AtomicBoolean full = new AtomicBoolean(true);
+        UserTweetCascade cascade = new UserTweetCascade(tweetRepository, auditEventWriter, eventPublisher,
+                transactionManager, task -> {
+                    if (full.get()) {
+                        throw new RejectedExecutionException("full");
+                    }
+                    submitted.add(task);
+                }, new UserDeletionProperties(2, 1, 0, 100, RETENTION));
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2))
+                .thenReturn(List.of(view(1L, "a"), view(2L, "b")));
+        when(tweetRepository.findDeletedAuthorsWithLiveTweets(100))
+                .thenReturn(List.of(new PendingUserDeletion(7L, DELETED_AT)));
+
+        cascade.deleteTweetsOf(7L, null, DELETED_AT);
+        assertThat(cascade.getStatus(7L)).get()
+                .extracting(UserDeletionStatus::state).isEqualTo(UserDeletionStatus.State.FAILED);
+
+        full.set(false);
+        cascade.resumeUnfinished();
+
+        assertThat(submitted).hasSize(1);
+        assertThat(cascade.getStatus(7L)).get()
+                .satisfies(status -> {
+                    assertThat(status.state()).isEqualTo(UserDeletionStatus.State.RUNNING);
+                    assertThat(status.tweetsDeleted()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void getStatus_forgetsSettledJobsAfterTheRetentionButKeepsRunningOnes() {
+        AtomicLong nanos = new AtomicLong();
+        UserTweetCascade cascade = new UserTweetCascade(tweetRepository, auditEventWriter, eventPublisher,
+                transactionManager, submitted::add, new UserDeletionProperties(2, 1, 10, 100, RETENTION), nanos::get);
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(7L, null, 2)).thenReturn(List.of(view(1L, "a")));
+        when(tweetRepository.findPageByAuthorIdAndDeletedAtIsNull(8L, null, 2))
+                .thenReturn(List.of(view(2L, "b"), view(3L, "c")));
+
+        cascade.deleteTweetsOf(7L, null, DELETED_AT);
+        cascade.deleteTweetsOf(8L, null, DELETED_AT);
+        nanos.addAndGet(RETENTION.minusMinutes(1).toNanos());
+        assertThat(cascade.getStatus(7L)).get()
+                .extracting(UserDeletionStatus::state).isEqualTo(UserDeletionStatus.State.COMPLETED);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertThat(cascade.getStatus(7L)).isEmpty();
+        assertThat(cascade.getStatus(8L)).get()
+                .extracting(UserDeletionStatus::state).isEqualTo(UserDeletionStatus.State.RUNNING);
+    }
+
+    private UserTweetCascade cascade(int chunkSize) {
+        return new UserTweetCascade(tweetRepository, auditEventWriter, eventPublisher, transactionManager,
+                submitted::add, new UserDeletionProperties(chunkSize, 1, 10, 100, RETENTION));
+    }
+
+    private static TweetView view(Long id, String content) {
+        return new TweetView(id, content, DELETED_AT.minusDays(1), 7L, "handle", 0L, 0L);
+    }
+}